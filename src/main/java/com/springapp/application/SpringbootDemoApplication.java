@@ -3,6 +3,7 @@ package com.springapp.application;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EnableJpaRepositories(basePackages = "com.springapp.jpa.repository")
 @EntityScan(basePackages = "com.springapp.model")
 @ComponentScan(basePackages = {"com.springapp"})
+@EnableCaching
 public class SpringbootDemoApplication {
 
 	public static void main(String[] args) {
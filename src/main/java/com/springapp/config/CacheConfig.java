@@ -0,0 +1,28 @@
+package com.springapp.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springapp.jpa.service.EmployeeService;
+
+@Configuration
+public class CacheConfig {
+
+    // caches that need their own size/TTL instead of spring.cache.caffeine.spec
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> employeeCacheCustomizer(
+            @Value("${app.employees.stats.cache-ttl:30s}") Duration statsTtl) {
+        return manager -> manager.registerCustomCache(EmployeeService.DEPARTMENT_STATS_CACHE,
+                Caffeine.newBuilder()
+                        .maximumSize(16)
+                        .expireAfterWrite(statsTtl)
+                        .recordStats()
+                        .build());
+    }
+}
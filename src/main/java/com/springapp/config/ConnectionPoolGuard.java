@@ -0,0 +1,53 @@
+package com.springapp.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.springapp.jpa.exception.DatabaseBusyException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects requests with 503 while too many threads are already queued for a
+ * connection, instead of parking one more Tomcat thread behind them. Requests
+ * that do get in still fail fast once spring.datasource.hikari.connection-timeout
+ * passes (see GlobalExceptionHandler). Every Hikari pool in the context is
+ * watched, so with the read/write split a queue on the replica pool counts too.
+ */
+@Component
+public class ConnectionPoolGuard implements HandlerInterceptor {
+
+    private final List<HikariDataSource> pools;
+
+    private final int maxPending;
+
+    public ConnectionPoolGuard(ObjectProvider<HikariDataSource> pools,
+                               @Value("${app.datasource.max-pending-requests:50}") int maxPending) {
+        this.pools = pools.orderedStream().toList();
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        for (HikariDataSource ds : pools) {
+            HikariPoolMXBean pool = ds.getHikariPoolMXBean(); // null until Hikari has started
+            if (pool != null) {
+                int waiting = pool.getThreadsAwaitingConnection();
+                if (waiting >= maxPending) {
+                    throw new DatabaseBusyException(waiting);
+                }
+            }
+        }
+        return true;
+    }
+}
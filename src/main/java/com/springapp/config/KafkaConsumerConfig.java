@@ -0,0 +1,118 @@
+package com.springapp.config;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.jpa.service.EmployeeTypeaheadIndex;
+import com.springapp.kafka.EmployeeChangeApplier;
+import com.springapp.kafka.EmployeeChangeConsumer;
+import com.springapp.kafka.KeyOrderedConsumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Consumer applying employee change events from app.kafka.consumer.topic,
+ * enabled with app.kafka.consumer.enabled=true. The records run on
+ * app.kafka.consumer.lanes key-ordered lanes, or on the polling thread with
+ * lanes=0. Point it at a different database than the one whose outbox feeds
+ * the topic. Every lane holds a connection of the primary pool while it
+ * writes, so lanes are capped at half of spring.datasource.hikari.maximum-pool-size
+ * and the rest is left for HTTP requests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.kafka.consumer.enabled", havingValue = "true")
+public class KafkaConsumerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+
+    // offsets are committed by the application once the records are in the database, never automatically
+    @Bean
+    public Consumer<String, String> employeeChangeKafkaConsumer(
+            @Value("${app.kafka.bootstrap-servers:localhost:9092}") String servers,
+            @Value("${app.kafka.consumer.group-id:employee-sync}") String groupId,
+            @Value("${app.kafka.consumer.max-poll-records:500}") int maxPollRecords) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        return new KafkaConsumer<>(props);
+    }
+
+    @Bean
+    public EmployeeChangeApplier employeeChangeApplier(EmployeeRepository repo, PlatformTransactionManager txManager,
+                                                       ObjectMapper mapper, CacheManager cacheManager,
+                                                       EmployeeTypeaheadIndex typeahead, MeterRegistry meters) {
+        return new EmployeeChangeApplier(repo, txManager, mapper, cacheManager, typeahead, meters);
+    }
+
+    // records handled on the polling thread, one transaction per poll
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.consumer.lanes", havingValue = "0")
+    public EmployeeChangeConsumer employeeChangeConsumer(Consumer<String, String> employeeChangeKafkaConsumer,
+                                                         EmployeeChangeApplier applier, MeterRegistry meters,
+                                                         @Value("${app.kafka.consumer.topic:employee-changes}") String topic,
+                                                         @Value("${app.kafka.consumer.poll-timeout:1s}") Duration pollTimeout,
+                                                         @Value("${app.kafka.consumer.retry-backoff:5s}") Duration retryBackoff) {
+        return new EmployeeChangeConsumer(employeeChangeKafkaConsumer, applier, meters, topic, pollTimeout, retryBackoff);
+    }
+
+    // records spread over lanes by emp_id, handled in parallel; lane threads are virtual on Java 21+
+    @Bean
+    @ConditionalOnExpression("${app.kafka.consumer.lanes:8} > 0")
+    public KeyOrderedConsumer<String, String> employeeChangeLanes(Consumer<String, String> employeeChangeKafkaConsumer,
+                                                                  EmployeeChangeApplier applier, MeterRegistry meters,
+                                                                  @Value("${app.kafka.consumer.topic:employee-changes}") String topic,
+                                                                  @Value("${app.kafka.consumer.lanes:8}") int lanes,
+                                                                  @Value("${app.kafka.consumer.lane-capacity:1000}") int laneCapacity,
+                                                                  @Value("${app.kafka.consumer.lane-batch-size:100}") int laneBatchSize,
+                                                                  @Value("${app.kafka.consumer.poll-timeout:1s}") Duration pollTimeout,
+                                                                  @Value("${app.kafka.consumer.retry-backoff:5s}") Duration retryBackoff,
+                                                                  @Value("${app.kafka.consumer.commit-interval:1s}") Duration commitInterval,
+                                                                  @Value("${app.kafka.consumer.drain-timeout:30s}") Duration drainTimeout,
+                                                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        int maxLanes = Math.max(1, poolSize / 2);
+        if (lanes > maxLanes) {
+            log.warn("app.kafka.consumer.lanes={} would hold most of the {} connection pool, using {} lanes",
+                    lanes, poolSize, maxLanes);
+            lanes = maxLanes;
+        }
+        KeyOrderedConsumer.Options options = new KeyOrderedConsumer.Options(lanes, laneCapacity, laneBatchSize,
+                pollTimeout, retryBackoff, commitInterval, drainTimeout);
+        return new KeyOrderedConsumer<>(employeeChangeKafkaConsumer, applier, meters, "employee-changes", topic,
+                options, laneThreads());
+    }
+
+    private static ThreadFactory laneThreads() {
+        try {
+            return new VirtualThreadTaskExecutor("employee-lane-").getVirtualThreadFactory();
+        } catch (UnsupportedOperationException ex) {
+            CustomizableThreadFactory threads = new CustomizableThreadFactory("employee-lane-");
+            threads.setDaemon(true);
+            return threads;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.springapp.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.springapp.jpa.repository.EmployeeOutboxRepository;
+import com.springapp.kafka.EmployeeEventPublisher;
+import com.springapp.kafka.EmployeeOutboxRelay;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Outbox relay to Kafka, enabled with app.outbox.relay.enabled=true (needs
+ * app.outbox.enabled=true so there is something to relay). Sends through the
+ * shared EmployeeEventPublisher from KafkaProducerConfig. Run it in one
+ * instance per database; two relays would publish the same rows twice.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true")
+public class KafkaOutboxConfig {
+
+    @Bean
+    public EmployeeOutboxRelay employeeOutboxRelay(EmployeeOutboxRepository outbox, EmployeeEventPublisher publisher,
+                                                   PlatformTransactionManager txManager, MeterRegistry meters,
+                                                   @Value("${app.outbox.topic:employee-changes}") String topic,
+                                                   @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+                                                   @Value("${app.outbox.relay.send-timeout:30s}") Duration sendTimeout) {
+        return new EmployeeOutboxRelay(outbox, publisher, txManager, meters, topic, batchSize, sendTimeout);
+    }
+}
@@ -0,0 +1,61 @@
+package com.springapp.config;
+
+import java.time.Duration;
+import java.util.Properties;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.kafka.EmployeeEventPublisher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The one Kafka producer of the application and the EmployeeEventPublisher in
+ * front of it. Created when app.kafka.producer.enabled=true, or when the
+ * outbox relay needs it.
+ */
+@Configuration
+@ConditionalOnExpression("${app.kafka.producer.enabled:false} or ${app.outbox.relay.enabled:false}")
+public class KafkaProducerConfig {
+
+    // idempotence (implies acks=all and at most 5 in-flight requests per connection) keeps retries
+    // from duplicating or reordering records; linger.ms/batch.size/compression trade latency for throughput
+    @Bean(destroyMethod = "close")
+    public Producer<String, String> employeeEventProducer(
+            @Value("${app.kafka.bootstrap-servers:localhost:9092}") String servers,
+            @Value("${app.kafka.producer.linger:20ms}") Duration linger,
+            @Value("${app.kafka.producer.batch-size:65536}") int batchSize,
+            @Value("${app.kafka.producer.compression-type:lz4}") String compression,
+            @Value("${app.kafka.producer.delivery-timeout:2m}") Duration deliveryTimeout) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "employee-events");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) deliveryTimeout.toMillis());
+        return new KafkaProducer<>(props);
+    }
+
+    @Bean
+    public EmployeeEventPublisher employeeEventPublisher(Producer<String, String> employeeEventProducer,
+                                                         ObjectMapper mapper, MeterRegistry meters,
+                                                         @Value("${app.kafka.producer.topic:employee-changes}") String topic,
+                                                         @Value("${app.kafka.producer.max-in-flight:1000}") int maxInFlight,
+                                                         @Value("${app.kafka.producer.max-block:5s}") Duration maxBlock) {
+        return new EmployeeEventPublisher(employeeEventProducer, mapper, meters, topic, maxInFlight, maxBlock);
+    }
+}
@@ -0,0 +1,93 @@
+package com.springapp.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Read/write split, enabled with app.datasource.replica.enabled=true.
+ *
+ * The DataSource JPA sees is a LazyConnectionDataSourceProxy: the physical
+ * connection is only fetched at the first statement, after the transaction
+ * manager has marked it read-only, so {@code @Transactional(readOnly = true)}
+ * work goes to the replica pool and everything else to the primary pool.
+ * Reads that fill a cache run read-write (see EmployeeService) and replica
+ * reads do not store into the second-level cache, so a lagging replica cannot
+ * put a row the primary already changed back into a cache.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // spring.datasource.* and spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    // app.datasource.replica.{url,username,password,driver-class-name} and app.datasource.replica.hikari.*;
+    // connection-timeout defaults to the primary's, so falling back to the primary does not wait longer
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeout,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}") String driver) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password);
+        if (StringUtils.hasText(driver)) {
+            builder.driverClassName(driver);
+        }
+        HikariDataSource ds = builder.build();
+        ds.setPoolName("replica");
+        ds.setConnectionTimeout(connectionTimeout);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaFallbackDataSource replicaFallbackDataSource(
+            @Qualifier("replicaDataSource") HikariDataSource replica,
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            @Value("${app.datasource.replica.retry-after:30s}") Duration retryAfter,
+            @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag) {
+        return new ReplicaFallbackDataSource(replica, primary, retryAfter, lagQuery, maxLag);
+    }
+
+    @Bean
+    public ReplicaReadCacheBypass replicaReadCacheBypass(EntityManagerFactory emf) {
+        return new ReplicaReadCacheBypass(emf);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 ReplicaFallbackDataSource replica) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replica);
+        return proxy;
+    }
+}
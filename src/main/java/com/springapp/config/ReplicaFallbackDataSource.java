@@ -0,0 +1,111 @@
+package com.springapp.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import com.springapp.jpa.exception.DatabaseBusyException;
+
+/**
+ * Read-only side of the read/write split. Hands out replica connections while
+ * the replica is usable; when a replica connection cannot be obtained, or the
+ * optional lag query reports more than maxLag seconds, reads go to the primary
+ * until retryAfter has passed. A full replica pool is not a down replica: its
+ * timeout is passed on (and answered as busy) instead of moving reads over.
+ */
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFallbackDataSource.class);
+
+    private final DataSource primary;
+
+    private final long retryAfterNanos;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private volatile long unusableUntil;
+
+    private volatile boolean unusable;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration retryAfter,
+                                     String lagQuery, Duration maxLag) {
+        super(replica);
+        this.primary = primary;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (isReplicaUsable()) {
+            try {
+                return super.getConnection();
+            } catch (SQLException ex) {
+                if (DatabaseBusyException.isPoolTimeout(ex)) {
+                    throw ex;
+                }
+                markUnusable("connection failed: " + ex.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (isReplicaUsable()) {
+            try {
+                return super.getConnection(username, password);
+            } catch (SQLException ex) {
+                if (DatabaseBusyException.isPoolTimeout(ex)) {
+                    throw ex;
+                }
+                markUnusable("connection failed: " + ex.getMessage());
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    public boolean isReplicaUsable() {
+        return !unusable || System.nanoTime() - unusableUntil > 0;
+    }
+
+    // route reads to the primary for the next retryAfter
+    public void markUnusable(String reason) {
+        if (isReplicaUsable()) {
+            log.warn("Read replica unusable ({}), reading from primary", reason);
+        }
+        unusableUntil = System.nanoTime() + retryAfterNanos;
+        unusable = true;
+    }
+
+    // lag query returns seconds behind the primary, e.g. from sys.dm_hadr_database_replica_states
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:10s}")
+    public void checkLag() {
+        if (!StringUtils.hasText(lagQuery)) {
+            return;
+        }
+        try {
+            Long lag = new JdbcTemplate(obtainTargetDataSource()).queryForObject(lagQuery, Long.class);
+            if (lag != null && lag > maxLag.toSeconds()) {
+                markUnusable("lag " + lag + "s");
+            }
+        } catch (DataAccessException ex) {
+            if (!DatabaseBusyException.isPoolTimeout(ex)) {
+                markUnusable("lag check failed: " + ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.springapp.config;
+
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps what read-only transactions load out of the second-level cache. Those
+ * transactions run on the replica, which may lag: a row it still has in its
+ * old state (or at all, after a delete) would otherwise be stored in the
+ * "employee" region and served to primary reads until it expires. They still
+ * read from the cache; only primary reads and writes fill it.
+ */
+public class ReplicaReadCacheBypass implements TransactionExecutionListener {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private final EntityManagerFactory emf;
+
+    public ReplicaReadCacheBypass(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure == null && transaction.isReadOnly()) {
+            storeMode(CacheStoreMode.BYPASS);
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        reset(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, @Nullable Throwable rollbackFailure) {
+        reset(transaction);
+    }
+
+    // the EntityManager outlives the transaction under open-in-view
+    private void reset(TransactionExecution transaction) {
+        if (transaction.isReadOnly()) {
+            storeMode(CacheStoreMode.USE);
+        }
+    }
+
+    private void storeMode(CacheStoreMode mode) {
+        if (TransactionSynchronizationManager.getResource(emf) instanceof EntityManagerHolder holder) {
+            holder.getEntityManager().setProperty(STORE_MODE, mode);
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.springapp.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -14,10 +25,29 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.springapp.dto.BatchChunkResult;
+import com.springapp.dto.CsvImportSummary;
+import com.springapp.dto.CursorPage;
+import com.springapp.dto.DepartmentSalaryStats;
+import com.springapp.dto.EmployeePatch;
+import com.springapp.dto.EmployeeSetVersion;
+import com.springapp.dto.EmployeeProjection;
+import com.springapp.dto.EmployeeSuggestion;
+import com.springapp.dto.IngestStatus;
+import com.springapp.jpa.service.EmployeeBatchService;
+import com.springapp.jpa.service.EmployeeCsvImporter;
 import com.springapp.jpa.service.EmployeeService;
+import com.springapp.jpa.service.EmployeeTypeaheadIndex;
+import com.springapp.jpa.service.EmployeeWriteBehindBuffer;
 import com.springapp.model.Employee;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/employees")
 public class EmployeeController {
@@ -25,35 +55,128 @@ public class EmployeeController {
 	@Autowired
     private final EmployeeService service;
 
-    public EmployeeController(EmployeeService service) {
+    private final EmployeeBatchService batchService;
+
+    private final EmployeeTypeaheadIndex typeahead;
+
+    private final EmployeeWriteBehindBuffer writeBehind;
+
+    private final EmployeeCsvImporter csvImporter;
+
+    private final ObjectMapper mapper;
+
+    private final Duration exportTimeout;
+
+    public EmployeeController(EmployeeService service, EmployeeBatchService batchService,
+                              EmployeeTypeaheadIndex typeahead, EmployeeWriteBehindBuffer writeBehind,
+                              EmployeeCsvImporter csvImporter, ObjectMapper mapper,
+                              @Value("${app.employees.export.timeout:30m}") Duration exportTimeout) {
         this.service = service;
+        this.batchService = batchService;
+        this.typeahead = typeahead;
+        this.writeBehind = writeBehind;
+        this.csvImporter = csvImporter;
+        this.mapper = mapper;
+        this.exportTimeout = exportTimeout;
     }
     
-    // 1️⃣ Get employee by ID
+    // 1️⃣ Get employee by ID; weak ETag from the row version, checked against the same (cached) row the body comes from
     @GetMapping("/{id}")
-    public Employee getEmployee(@PathVariable Integer id) {
-        return service.findByIdOrThrow(id);
+    public ResponseEntity<Employee> getEmployee(@PathVariable Integer id, WebRequest request,
+                                                HttpServletResponse response) {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT); // JSON, CBOR and Smile share one URL
+        Employee employee = service.findByIdOrThrow(id);
+        String etag = etag(id, employee.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written
+        }
+        return ResponseEntity.ok().eTag(etag).body(employee);
     }
 
-    // 2️⃣ Get all employees
+    // 2️⃣ Get employees page by page (?after=<emp_id>&limit=N)
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return service.findAll();
+    public CursorPage<Employee> getAllEmployees(@RequestParam(required = false) Integer after,
+                                                @RequestParam(required = false) Integer limit) {
+        return service.findPage(after, limit);
     }
 
-    // 3️⃣ Create a new employee
+    // Id, name and department only (?department=&after=&limit=), for directory screens
+    @GetMapping("/summary")
+    public CursorPage<EmployeeProjection> getEmployeeSummaries(@RequestParam(required = false) String department,
+                                                               @RequestParam(required = false) Integer after,
+                                                               @RequestParam(required = false) Integer limit) {
+        return service.findSummaryPage(department, after, limit);
+    }
+
+    // Stream every employee as newline-delimited JSON; runs async with its own timeout (exports can run long)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportEmployees(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            OutputStream out = response.getOutputStream();
+            service.exportAll(e -> {
+                try {
+                    out.write(mapper.writeValueAsBytes(e));
+                    out.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            out.flush();
+            return null;
+        });
+    }
+
+    // 3️⃣ Create a new employee (409 if the emp_id exists); in write-behind mode 202 with a tracking id (429 when the buffer is full, 503 once it is shutting down)
     @PostMapping
-    public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee) {
+        if (writeBehind.isEnabled()) {
+            IngestStatus status = writeBehind.submit(employee);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/employees/ingest/" + status.trackingId()))
+                    .body(status);
+        }
         Employee saved = service.saveEmployee(employee);
         return new ResponseEntity<>(saved, HttpStatus.CREATED);
     }
 
-    // 4️⃣ Update an existing employee
+    // State of a write-behind create: QUEUED, COMMITTED or FAILED
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<IngestStatus> ingestStatus(@PathVariable String trackingId) {
+        return ResponseEntity.of(writeBehind.status(trackingId));
+    }
+
+    // Create many new employees in JDBC-batched chunks; 207 if any chunk rolled back, 400 if a row carries a version
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchChunkResult>> createEmployees(@RequestBody List<Employee> employees,
+                                                                  @RequestParam(required = false) Integer chunkSize) {
+        List<BatchChunkResult> results = batchService.insertAll(employees, chunkSize);
+        boolean allCommitted = results.stream().allMatch(BatchChunkResult::committed);
+        return new ResponseEntity<>(results, allCommitted ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
+    // Import a CSV body (empid,ename,email,department,salary) read as a stream; 207 if any line was rejected
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<CsvImportSummary> importEmployees(InputStream body,
+                                                            @RequestParam(defaultValue = "true") boolean header,
+                                                            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        CsvImportSummary summary = csvImporter.importCsv(body, header, chunkSize);
+        return new ResponseEntity<>(summary, summary.rejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
+    // 4️⃣ Update an existing employee; 409 if the body's "version" is stale
     @PutMapping("/{id}")
     public Employee updateEmployee(@PathVariable Integer id, @RequestBody Employee updatedData) {
         return service.updateEmployee(id, updatedData);
     }
 
+    // Update only the fields sent; 409 if "version" is given and stale
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable Integer id, @RequestBody EmployeePatch patch) {
+        service.patchEmployee(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
     // 5️⃣ Delete employee by ID
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEmployee(@PathVariable Integer id) {
@@ -61,14 +184,69 @@ public class EmployeeController {
         return ResponseEntity.ok().build();
     }
 
-    // 6️⃣ Search employees by department
+    // Bulk delete: either ?ids=1,2,3 or ?department=X, returns the number of rows removed
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> deleteEmployees(@RequestParam(required = false) List<Integer> ids,
+                                                                @RequestParam(required = false) String department) {
+        if ((ids == null) == (department == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int deleted = ids != null ? batchService.deleteByIds(ids) : batchService.deleteByDepartment(department);
+        return ResponseEntity.ok(Map.of("deleted", deleted));
+    }
+
+    // 6️⃣ Search employees by department; weak ETag fingerprints the department's rows
     @GetMapping("/search")
-    public List<Employee> searchByDepartment(@RequestParam String department) {
-        return service.findByDepartment(department);
+    public ResponseEntity<List<Employee>> searchByDepartment(@RequestParam String department, WebRequest request,
+                                                             HttpServletResponse response) {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(service.departmentVersion(department).etag())) {
+            return null; // 304 already written
+        }
+        List<Employee> employees = service.findByDepartment(department);
+        return ResponseEntity.ok().eTag(EmployeeSetVersion.of(employees).etag()).body(employees);
     }
     
+    // Prefix search over names and emails, served from memory
+    @GetMapping("/typeahead")
+    public List<EmployeeSuggestion> typeahead(@RequestParam String q,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        return typeahead.search(q, Math.max(1, Math.min(limit, 50)));
+    }
+
+    // Count, sum, avg, min, max and top earner per department
+    @GetMapping("/stats/departments")
+    public List<DepartmentSalaryStats> departmentStats() {
+        return service.departmentSalaryStats();
+    }
+
+    // Employees with the n-th highest salary (1 = highest), optionally within ?department=
+    @GetMapping("/salary/rank/{n}")
+    public ResponseEntity<List<Employee>> salaryRank(@PathVariable int n,
+                                                     @RequestParam(required = false) String department) {
+        if (n < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(service.findBySalaryRank(n, department));
+    }
+
+    // Top n salaries in every department
+    @GetMapping("/salary/top/{n}")
+    public ResponseEntity<List<Employee>> topSalariesPerDepartment(@PathVariable int n) {
+        if (n < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(service.findTopSalariesPerDepartment(n));
+    }
+
     @GetMapping("/name/{ename}")
     public Employee searchByName(@PathVariable String ename) {
         return service.findByEname(ename);
     }
+
+    // weak: the same version is served as JSON, CBOR or Smile, which are not byte-identical
+    private static String etag(Integer id, Long version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
 }
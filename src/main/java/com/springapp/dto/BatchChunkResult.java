@@ -0,0 +1,16 @@
+package com.springapp.dto;
+
+/**
+ * Outcome of one chunk of a bulk write. Each chunk commits or rolls back on its
+ * own, so a failed chunk does not undo the ones before it.
+ */
+public record BatchChunkResult(int chunk, int firstIndex, int size, boolean committed, String error) {
+
+	public static BatchChunkResult committed(int chunk, int firstIndex, int size) {
+		return new BatchChunkResult(chunk, firstIndex, size, true, null);
+	}
+
+	public static BatchChunkResult failed(int chunk, int firstIndex, int size, String error) {
+		return new BatchChunkResult(chunk, firstIndex, size, false, error);
+	}
+}
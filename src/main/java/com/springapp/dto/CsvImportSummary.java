@@ -0,0 +1,15 @@
+package com.springapp.dto;
+
+import java.util.List;
+
+/**
+ * Result of POST /employees/import. Line numbers are 1-based and count the
+ * header line; only the first app.employees.import.max-rejected-lines
+ * rejections are listed, rejected always has the full count.
+ */
+public record CsvImportSummary(long lines, long imported, long rejected, List<RejectedLine> rejectedLines,
+		boolean rejectedLinesTruncated, long millis) {
+
+	public record RejectedLine(long line, String reason) {
+	}
+}
@@ -0,0 +1,11 @@
+package com.springapp.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the last key on
+ * this page and should be passed back as {@code after}; it is null on the last
+ * page.
+ */
+public record CursorPage<T>(List<T> items, Integer nextCursor) {
+}
@@ -0,0 +1,13 @@
+package com.springapp.dto;
+
+// one row of GET /employees/stats/departments, filled from a native window-function query
+public interface DepartmentSalaryStats {
+	String getDepartment();
+	Long getEmployeeCount();
+	Long getTotalSalary();
+	Double getAverageSalary();
+	Integer getMinSalary();
+	Integer getMaxSalary();
+	Integer getTopEarnerId();
+	String getTopEarnerName();
+}
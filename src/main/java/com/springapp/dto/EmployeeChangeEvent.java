@@ -0,0 +1,15 @@
+package com.springapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Compact change event as stored in the outbox and published to Kafka (key =
+ * empid). SAVED carries the whole row, PATCHED only the fields that were
+ * written, DELETED only the id; absent fields are left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeeChangeEvent(Type type, Integer empid, String ename, String email, String department,
+		Integer salary, Long version) {
+
+	public enum Type { SAVED, PATCHED, DELETED }
+}
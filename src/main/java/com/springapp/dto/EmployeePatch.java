@@ -0,0 +1,12 @@
+package com.springapp.dto;
+
+/**
+ * Body of PATCH /employees/{id}. Null fields are left untouched; when
+ * {@code version} is given the update only applies if it still matches.
+ */
+public record EmployeePatch(String ename, String email, String department, Integer salary, Long version) {
+
+	public boolean isEmpty() {
+		return ename == null && email == null && department == null && salary == null;
+	}
+}
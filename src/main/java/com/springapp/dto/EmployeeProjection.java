@@ -1,7 +1,8 @@
 package com.springapp.dto;
 
+// closed projection: queries returning it select only these three columns
 public interface EmployeeProjection {
-	String getEmpId();
-    String getEName();
+	Integer getEmpid();
+    String getEname();
     String getDepartment();
 }
@@ -0,0 +1,35 @@
+package com.springapp.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.springapp.model.Employee;
+
+/**
+ * Cheap fingerprint of a set of employees, used as the ETag of collection
+ * responses. Inserts and deletes change the count or id sum, every write
+ * bumps a version and the newest last_modified, so any change to the set
+ * changes the fingerprint. The ETag is weak because the same set is served
+ * in several media types.
+ */
+public record EmployeeSetVersion(Long count, Long idSum, Long versionSum, Instant lastModified) {
+
+	public static EmployeeSetVersion of(List<Employee> employees) {
+		long idSum = 0;
+		long versionSum = 0;
+		Instant last = null;
+		for (Employee e : employees) {
+			idSum += e.getEmpid();
+			versionSum += e.getVersion() == null ? 0 : e.getVersion();
+			if (e.getLastModified() != null && (last == null || e.getLastModified().isAfter(last))) {
+				last = e.getLastModified();
+			}
+		}
+		return new EmployeeSetVersion((long) employees.size(), idSum, versionSum, last);
+	}
+
+	public String etag() {
+		long millis = lastModified == null ? 0 : lastModified.toEpochMilli();
+		return "W/\"" + count + "-" + idSum + "-" + versionSum + "-" + millis + "\"";
+	}
+}
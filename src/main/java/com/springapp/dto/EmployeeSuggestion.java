@@ -0,0 +1,4 @@
+package com.springapp.dto;
+
+public record EmployeeSuggestion(Integer empid, String ename, String email) {
+}
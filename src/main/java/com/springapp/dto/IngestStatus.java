@@ -0,0 +1,22 @@
+package com.springapp.dto;
+
+/**
+ * State of one create accepted by the write-behind buffer. empid is known from
+ * the request; error is set only when the row could not be inserted.
+ */
+public record IngestStatus(String trackingId, State state, Integer empid, String error) {
+
+	public enum State { QUEUED, COMMITTED, FAILED }
+
+	public static IngestStatus queued(String trackingId, Integer empid) {
+		return new IngestStatus(trackingId, State.QUEUED, empid, null);
+	}
+
+	public IngestStatus committed() {
+		return new IngestStatus(trackingId, State.COMMITTED, empid, null);
+	}
+
+	public IngestStatus failed(String error) {
+		return new IngestStatus(trackingId, State.FAILED, empid, error);
+	}
+}
@@ -1,26 +1,88 @@
 package com.springapp.jpa;
 
-import com.springapp.model.Employee;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+
+import com.springapp.jpa.loader.EmployeeBulkLoader;
+import com.springapp.jpa.loader.HikariConnectionProvider;
 
-import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+/**
+ * Offline bulk loader on the "pu" persistence unit (META-INF/persistence.xml):
+ *
+ *   java ... com.springapp.jpa.JpaDemo employees.csv [--threads=8] [--chunk-size=1000]
+ *            [--load-id=name] [--no-header]
+ *
+ * Connection settings can be overridden with -Djakarta.persistence.jdbc.url=...
+ * (and any other -Djakarta.persistence.* / -Dhibernate.* property). On SQL Server
+ * add useBulkCopyForBatchInsert=true to the URL. Connections come from a Hikari
+ * pool of threads + 1. Run it again with the same load id (default: the file
+ * name) on the same, unchanged file to resume a failed load.
+ */
 public class JpaDemo {
-	public static void main(String[] args) {
-		
-		Employee insert = new Employee(5,"Devyesh yadav","devyesh@dxc.com","Integration",1500000);
-
-		EntityManagerFactory emf = Persistence.createEntityManagerFactory("pu");
-		
-		EntityManager em = emf.createEntityManager();
-		em.getTransaction().begin();
-		em.persist(insert);
-		em.getTransaction().commit();
-		System.out.println(insert);
-		
-		//Employee emp = em.find(Employee.class, "1");
-		//System.out.println(emp);
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.err.println("usage: JpaDemo <file.csv> [--threads=N] [--chunk-size=N] [--load-id=name] [--no-header]");
+			System.exit(2);
+		}
+		Path file = Path.of(args[0]);
+		if (!Files.isReadable(file)) {
+			System.err.println("cannot read " + file);
+			System.exit(2);
+		}
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		int chunkSize = 1000;
+		String loadId = file.getFileName().toString();
+		boolean header = true;
+		for (int i = 1; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.startsWith("--threads=")) {
+				threads = Integer.parseInt(arg.substring("--threads=".length()));
+			} else if (arg.startsWith("--chunk-size=")) {
+				chunkSize = Integer.parseInt(arg.substring("--chunk-size=".length()));
+			} else if (arg.startsWith("--load-id=")) {
+				loadId = arg.substring("--load-id=".length());
+			} else if (arg.equals("--no-header")) {
+				header = false;
+			} else {
+				System.err.println("unknown option " + arg);
+				System.exit(2);
+			}
+		}
+
+		Map<String, Object> settings = new HashMap<>();
+		settings.put("hibernate.show_sql", "false");
+		settings.put("hibernate.jdbc.batch_size", String.valueOf(Math.min(chunkSize, 1000)));
+		settings.put("hibernate.order_inserts", "true");
+		settings.put("hibernate.connection.provider_class", HikariConnectionProvider.class.getName());
+		settings.put(HikariConnectionProvider.MAXIMUM_POOL_SIZE, String.valueOf(threads + 1));
+		System.getProperties().forEach((key, value) -> {
+			String name = key.toString();
+			if (name.startsWith("jakarta.persistence.") || name.startsWith("hibernate.")) {
+				settings.put(name, value);
+			}
+		});
+
+		EmployeeBulkLoader.Report report;
+		try (EntityManagerFactory emf = Persistence.createEntityManagerFactory("pu", settings)) {
+			report = new EmployeeBulkLoader(emf.unwrap(SessionFactory.class))
+					.load(file, new EmployeeBulkLoader.Options(loadId, Math.max(1, threads), Math.max(1, chunkSize), header));
+		} catch (IllegalStateException ex) {
+			System.err.println(ex.getMessage());
+			System.exit(2);
+			return;
+		}
+		System.out.printf("%s: %d rows loaded (%d already committed before), %d lines rejected, %d ms, %d rows/s%n",
+				report.completed() ? "done" : "FAILED, run again to resume", report.loaded(), report.resumedFrom(),
+				report.rejected(), report.millis(), report.rowsPerSecond());
+		System.exit(report.completed() ? 0 : 1);
 	}
 
 }
@@ -0,0 +1,29 @@
+package com.springapp.jpa.event;
+
+import com.springapp.dto.EmployeePatch;
+import com.springapp.model.Employee;
+
+/**
+ * Published by the service layer whenever an employee row changes. Listeners
+ * that keep derived state (indexes, caches) should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public sealed interface EmployeeEvent {
+
+	Integer empid();
+
+	// row inserted or fully rewritten
+	record Saved(Employee employee) implements EmployeeEvent {
+		@Override
+		public Integer empid() {
+			return employee.getEmpid();
+		}
+	}
+
+	// only the non-null fields of the patch were written
+	record Patched(Integer empid, EmployeePatch patch) implements EmployeeEvent {
+	}
+
+	record Deleted(Integer empid) implements EmployeeEvent {
+	}
+}
@@ -0,0 +1,66 @@
+package com.springapp.jpa.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.dto.EmployeeChangeEvent;
+import com.springapp.dto.EmployeePatch;
+import com.springapp.jpa.repository.EmployeeOutboxRepository;
+import com.springapp.model.Employee;
+import com.springapp.model.EmployeeOutbox;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Turns every EmployeeEvent into an employee_outbox row inside the transaction
+ * that made the change, so the row exists if and only if the change committed.
+ * EmployeeOutboxRelay publishes and deletes them. Enabled with app.outbox.enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class EmployeeOutboxWriter {
+
+	private final EmployeeOutboxRepository outbox;
+
+	private final ObjectMapper mapper;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	public EmployeeOutboxWriter(EmployeeOutboxRepository outbox, ObjectMapper mapper) {
+		this.outbox = outbox;
+		this.mapper = mapper;
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onEmployeeEvent(EmployeeEvent event) {
+		if (event instanceof EmployeeEvent.Saved && em.isJoinedToTransaction()) {
+			em.flush(); // so Saved carries the version this commit writes
+		}
+		EmployeeChangeEvent change = toChange(event);
+		try {
+			outbox.save(new EmployeeOutbox(change.empid(), change.type().name(), mapper.writeValueAsString(change)));
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize " + change, ex);
+		}
+	}
+
+	static EmployeeChangeEvent toChange(EmployeeEvent event) {
+		if (event instanceof EmployeeEvent.Saved saved) {
+			Employee e = saved.employee();
+			return new EmployeeChangeEvent(EmployeeChangeEvent.Type.SAVED, e.getEmpid(), e.getEname(), e.getEmail(),
+					e.getDepartment(), e.getSalary(), e.getVersion());
+		}
+		if (event instanceof EmployeeEvent.Patched patched) {
+			EmployeePatch p = patched.patch();
+			return new EmployeeChangeEvent(EmployeeChangeEvent.Type.PATCHED, patched.empid(), p.ename(), p.email(),
+					p.department(), p.salary(), null);
+		}
+		return new EmployeeChangeEvent(EmployeeChangeEvent.Type.DELETED, event.empid(), null, null, null, null, null);
+	}
+}
@@ -0,0 +1,20 @@
+package com.springapp.jpa.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+public class DatabaseBusyException extends RuntimeException {
+	public DatabaseBusyException(int waiting) {
+		super("Database connection pool saturated: " + waiting + " requests already waiting for a connection");
+	}
+
+	// Hikari's "Connection is not available, request timed out" with no connection failure behind it,
+	// i.e. the pool was full rather than the database unreachable
+	public static boolean isPoolTimeout(Throwable ex) {
+		for (Throwable t = ex; t != null; t = t.getCause()) {
+			if (t instanceof SQLTransientConnectionException) {
+				return t.getCause() == null;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,7 @@
+package com.springapp.jpa.exception;
+
+public class EmployeeAlreadyExistsException extends RuntimeException {
+	public EmployeeAlreadyExistsException(Integer id) {
+		super("Employee " + id + " already exists; use PUT to change it");
+	}
+}
@@ -0,0 +1,7 @@
+package com.springapp.jpa.exception;
+
+public class EmployeeVersionConflictException extends RuntimeException {
+	public EmployeeVersionConflictException(Integer id, Long expected, Long actual) {
+		super("Employee " + id + " is at version " + actual + ", expected " + expected);
+	}
+}
@@ -2,7 +2,12 @@ package com.springapp.jpa.exception;
 
 import java.time.OffsetDateTime;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -25,6 +30,82 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    // Handle a bulk write row that cannot be inserted as it is
+    @ExceptionHandler(InvalidBatchRowException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBatchRow(InvalidBatchRowException ex,
+                                                              HttpServletRequest request) {
+        ErrorResponse body = new ErrorResponse(
+                OffsetDateTime.now().toString(),
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    // Handle optimistic-lock conflicts (stale version on PATCH or PUT) and creates of an existing emp_id
+    @ExceptionHandler({EmployeeVersionConflictException.class, ObjectOptimisticLockingFailureException.class,
+            EmployeeAlreadyExistsException.class})
+    public ResponseEntity<ErrorResponse> handleConflict(RuntimeException ex,
+                                                       HttpServletRequest request) {
+        ErrorResponse body = new ErrorResponse(
+                OffsetDateTime.now().toString(),
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    // Handle pool saturation / no connection within the Hikari connection-timeout / a lookup that took too long
+    @ExceptionHandler({DatabaseBusyException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseBusy(RuntimeException ex,
+                                                           HttpServletRequest request) {
+        ErrorResponse body = new ErrorResponse(
+                OffsetDateTime.now().toString(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    // Only a pool timeout is "busy"; a database that cannot be reached is a real error
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<?> handleNoConnection(RuntimeException ex, HttpServletRequest request) {
+        return DatabaseBusyException.isPoolTimeout(ex) ? handleDatabaseBusy(ex, request) : handleAll(ex);
+    }
+
+    // Handle a full write-behind buffer: the caller should back off and resend
+    @ExceptionHandler(IngestBufferFullException.class)
+    public ResponseEntity<ErrorResponse> handleIngestBufferFull(IngestBufferFullException ex,
+                                                               HttpServletRequest request) {
+        ErrorResponse body = new ErrorResponse(
+                OffsetDateTime.now().toString(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    // Handle a create arriving after the write-behind buffer stopped: this instance is going away
+    @ExceptionHandler(IngestBufferClosedException.class)
+    public ResponseEntity<ErrorResponse> handleIngestBufferClosed(IngestBufferClosedException ex,
+                                                                 HttpServletRequest request) {
+        ErrorResponse body = new ErrorResponse(
+                OffsetDateTime.now().toString(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleAll(Exception ex) {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,7 @@
+package com.springapp.jpa.exception;
+
+public class IngestBufferClosedException extends RuntimeException {
+	public IngestBufferClosedException() {
+		super("Ingest buffer is shutting down; send the create to another instance");
+	}
+}
@@ -0,0 +1,7 @@
+package com.springapp.jpa.exception;
+
+public class IngestBufferFullException extends RuntimeException {
+	public IngestBufferFullException(int capacity) {
+		super("Ingest buffer full: " + capacity + " creates already waiting to be written");
+	}
+}
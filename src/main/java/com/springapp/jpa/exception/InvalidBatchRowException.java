@@ -0,0 +1,7 @@
+package com.springapp.jpa.exception;
+
+public class InvalidBatchRowException extends RuntimeException {
+	public InvalidBatchRowException(int index, Integer id, String reason) {
+		super("Row " + index + " (empid " + id + "): " + reason);
+	}
+}
@@ -0,0 +1,71 @@
+package com.springapp.jpa.loader;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one partition of an EmployeeBulkLoader run. Updated in the same
+ * transaction as the chunk it counts, so after a failure rowsCommitted is
+ * exactly the number of that partition's rows (in file order) already in the
+ * employee table. fileSize and fileSha256 identify the input the ranges and
+ * counts refer to; a resume on any other file is refused. Only mapped in the
+ * "pu" persistence unit, not by Spring.
+ */
+@Entity
+@Table(name = "bulk_load_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLoadCheckpoint {
+
+	// "<loadId>:<partition>"
+	@Id
+	@Column(name = "id", length = 200)
+	private String id;
+
+	@Column(name = "load_id", nullable = false, length = 190)
+	private String loadId;
+
+	@Column(name = "partition_no", nullable = false)
+	private int partition;
+
+	// emp_id range of the partition, both inclusive
+	@Column(name = "range_from", nullable = false)
+	private int rangeFrom;
+
+	@Column(name = "range_to", nullable = false)
+	private int rangeTo;
+
+	@Column(name = "rows_committed", nullable = false)
+	private long rowsCommitted;
+
+	@Column(name = "file_size")
+	private Long fileSize;
+
+	@Column(name = "file_sha256", length = 64)
+	private String fileSha256;
+
+	@Column(name = "updated_at")
+	private Instant updatedAt;
+
+	public static BulkLoadCheckpoint start(String loadId, int partition, int rangeFrom, int rangeTo,
+			long fileSize, String fileSha256) {
+		return new BulkLoadCheckpoint(loadId + ":" + partition, loadId, partition, rangeFrom, rangeTo, 0,
+				fileSize, fileSha256, Instant.now());
+	}
+
+	public boolean isFor(long size, String sha256) {
+		return fileSize != null && fileSize == size && sha256.equals(fileSha256);
+	}
+
+	public boolean covers(int empid) {
+		return empid >= rangeFrom && empid <= rangeTo;
+	}
+}
@@ -0,0 +1,293 @@
+package com.springapp.jpa.loader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.springapp.jpa.service.EmployeeCsv;
+import com.springapp.model.Employee;
+
+/**
+ * Offline initial load of a large employee CSV (see EmployeeCsv for the
+ * format). The emp_id span of the file is split into one range per worker;
+ * a single reader parses the file and hands each worker the rows of its
+ * range in chunks. Every worker inserts through its own StatelessSession (no
+ * persistence context, JDBC-batched inserts) and commits each chunk together
+ * with its BulkLoadCheckpoint row. Running again with the same load id skips
+ * the rows every partition has already committed, so a failed load resumes
+ * from the last committed chunk instead of starting over. The checkpoints
+ * record the file's size and SHA-256; resuming on a changed file is refused,
+ * since the committed counts would then skip the wrong rows.
+ */
+public class EmployeeBulkLoader {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeBulkLoader.class);
+
+	private static final List<Employee> END = List.of();
+
+	public record Options(String loadId, int threads, int chunkSize, boolean header) {
+	}
+
+	public record Report(long loaded, long resumedFrom, long rejected, long millis, boolean completed) {
+
+		public long rowsPerSecond() {
+			return millis == 0 ? loaded : loaded * 1000 / millis;
+		}
+	}
+
+	private final SessionFactory sessionFactory;
+
+	public EmployeeBulkLoader(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	public Report load(Path file, Options options) throws IOException, InterruptedException {
+	    long start = System.nanoTime();
+	    List<BulkLoadCheckpoint> partitions = partitions(file, options);
+	    long resumedFrom = partitions.stream().mapToLong(BulkLoadCheckpoint::getRowsCommitted).sum();
+	    if (resumedFrom > 0) {
+	        log.info("Resuming load '{}': {} rows already committed", options.loadId(), resumedFrom);
+	    }
+
+	    AtomicLong loaded = new AtomicLong();
+	    AtomicReference<Throwable> failure = new AtomicReference<>();
+	    List<BlockingQueue<List<Employee>>> queues = new ArrayList<>();
+	    List<Thread> workers = new ArrayList<>();
+	    for (BulkLoadCheckpoint partition : partitions) {
+	        BlockingQueue<List<Employee>> queue = new ArrayBlockingQueue<>(2);
+	        queues.add(queue);
+	        Thread worker = new Thread(() -> write(partition, queue, loaded, failure),
+	                "bulk-load-" + partition.getPartition());
+	        workers.add(worker);
+	        worker.start();
+	    }
+
+	    ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+	    progress.scheduleAtFixedRate(() -> log.info("{} rows loaded ({} rows/s)", loaded.get(),
+	            loaded.get() * 1_000_000_000L / Math.max(1, System.nanoTime() - start)), 5, 5, TimeUnit.SECONDS);
+
+	    long rejected;
+	    try {
+	        rejected = dispatch(file, options, partitions, queues, failure);
+	        for (Thread worker : workers) {
+	            worker.join();
+	        }
+	    } finally {
+	        progress.shutdownNow();
+	    }
+
+	    long millis = (System.nanoTime() - start) / 1_000_000;
+	    Report report = new Report(loaded.get(), resumedFrom, rejected, millis, failure.get() == null);
+	    log.info("Load '{}' {}: {} rows in {} ms ({} rows/s), {} lines rejected", options.loadId(),
+	            report.completed() ? "finished" : "FAILED", report.loaded(), millis, report.rowsPerSecond(), rejected);
+	    return report;
+	}
+
+	// checkpoints of an earlier run of the same load, or a fresh split of the file's emp_id span
+	private List<BulkLoadCheckpoint> partitions(Path file, Options options) throws IOException {
+	    long size = Files.size(file);
+	    String sha256 = sha256(file);
+	    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+	        List<BulkLoadCheckpoint> existing = session.createQuery(
+	                "from BulkLoadCheckpoint where loadId = :loadId order by partition", BulkLoadCheckpoint.class)
+	                .setParameter("loadId", options.loadId())
+	                .getResultList();
+	        if (!existing.isEmpty()) {
+	            if (!existing.stream().allMatch(p -> p.isFor(size, sha256))) {
+	                throw new IllegalStateException("Load '" + options.loadId() + "' was started on a different file than "
+	                        + file + " (size or SHA-256 differ); use a new load id to load this file");
+	            }
+	            return existing;
+	        }
+
+	        int[] span = idSpan(file, options.header());
+	        if (span == null) {
+	            return List.of();
+	        }
+	        long width = ((long) span[1] - span[0]) / options.threads() + 1;
+	        List<BulkLoadCheckpoint> created = new ArrayList<>();
+	        Transaction tx = session.beginTransaction();
+	        for (long from = span[0]; from <= span[1]; from += width) {
+	            BulkLoadCheckpoint partition = BulkLoadCheckpoint.start(options.loadId(), created.size(),
+	                    (int) from, (int) Math.min(from + width - 1, span[1]), size, sha256);
+	            session.insert(partition);
+	            created.add(partition);
+	        }
+	        tx.commit();
+	        log.info("Load '{}': emp_id {}..{} split into {} partitions", options.loadId(), span[0], span[1], created.size());
+	        return created;
+	    }
+	}
+
+	private static String sha256(Path file) throws IOException {
+	    MessageDigest digest;
+	    try {
+	        digest = MessageDigest.getInstance("SHA-256");
+	    } catch (NoSuchAlgorithmException ex) {
+	        throw new IllegalStateException(ex);
+	    }
+	    byte[] buf = new byte[64 * 1024];
+	    try (InputStream in = Files.newInputStream(file)) {
+	        for (int n; (n = in.read(buf)) > 0; ) {
+	            digest.update(buf, 0, n);
+	        }
+	    }
+	    return HexFormat.of().formatHex(digest.digest());
+	}
+
+	// lowest and highest emp_id among the valid lines, null if there are none
+	private static int[] idSpan(Path file, boolean header) throws IOException {
+	    int min = Integer.MAX_VALUE;
+	    int max = Integer.MIN_VALUE;
+	    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+	        String line = reader.readLine();
+	        if (line != null && header) {
+	            line = reader.readLine();
+	        }
+	        for (; line != null; line = reader.readLine()) {
+	            try {
+	                int id = EmployeeCsv.parse(EmployeeCsv.stripBom(line)).getEmpid();
+	                min = Math.min(min, id);
+	                max = Math.max(max, id);
+	            } catch (IllegalArgumentException ex) {
+	                // reported by dispatch
+	            }
+	        }
+	    }
+	    return min > max ? null : new int[] { min, max };
+	}
+
+	// reads the file once and queues each partition's rows that are not committed yet, in chunks
+	private static long dispatch(Path file, Options options, List<BulkLoadCheckpoint> partitions,
+	                             List<BlockingQueue<List<Employee>>> queues, AtomicReference<Throwable> failure)
+	        throws IOException, InterruptedException {
+	    int n = partitions.size();
+	    long[] seen = new long[n];
+	    List<List<Employee>> chunks = new ArrayList<>();
+	    for (int i = 0; i < n; i++) {
+	        chunks.add(new ArrayList<>(options.chunkSize()));
+	    }
+	    long rejected = 0;
+	    long lineNo = 0;
+	    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+	        String line;
+	        while ((line = reader.readLine()) != null && failure.get() == null) {
+	            lineNo++;
+	            if (lineNo == 1 && options.header() || line.isBlank()) {
+	                continue;
+	            }
+	            Employee e;
+	            try {
+	                e = EmployeeCsv.parse(lineNo == 1 ? EmployeeCsv.stripBom(line) : line);
+	            } catch (IllegalArgumentException ex) {
+	                rejected++;
+	                log.warn("Line {} rejected: {}", lineNo, ex.getMessage());
+	                continue;
+	            }
+	            int p = partitionOf(partitions, e.getEmpid());
+	            if (!partitions.get(p).covers(e.getEmpid())) {
+	                rejected++;
+	                log.warn("Line {} rejected: emp_id {} is outside the ranges of load '{}'", lineNo, e.getEmpid(), options.loadId());
+	                continue;
+	            }
+	            if (++seen[p] <= partitions.get(p).getRowsCommitted()) {
+	                continue; // committed by an earlier run
+	            }
+	            List<Employee> chunk = chunks.get(p);
+	            chunk.add(e);
+	            if (chunk.size() == options.chunkSize()) {
+	                hand(queues.get(p), chunk, failure);
+	                chunks.set(p, new ArrayList<>(options.chunkSize()));
+	            }
+	        }
+	    } finally {
+	        for (int i = 0; i < n; i++) {
+	            if (!chunks.get(i).isEmpty() && failure.get() == null) {
+	                hand(queues.get(i), chunks.get(i), failure);
+	            }
+	            hand(queues.get(i), END, failure);
+	        }
+	    }
+	    return rejected;
+	}
+
+	private static int partitionOf(List<BulkLoadCheckpoint> partitions, int empid) {
+	    int low = 0;
+	    int high = partitions.size() - 1;
+	    while (low < high) {
+	        int mid = (low + high) >>> 1;
+	        if (partitions.get(mid).getRangeTo() < empid) {
+	            low = mid + 1;
+	        } else {
+	            high = mid;
+	        }
+	    }
+	    return low;
+	}
+
+	// gives up once a worker has failed, so the reader never waits on a queue nobody drains
+	private static void hand(BlockingQueue<List<Employee>> queue, List<Employee> chunk,
+	                         AtomicReference<Throwable> failure) throws InterruptedException {
+	    while (!queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+	        if (failure.get() != null) {
+	            return;
+	        }
+	    }
+	}
+
+	private void write(BulkLoadCheckpoint checkpoint, BlockingQueue<List<Employee>> queue,
+	                   AtomicLong loaded, AtomicReference<Throwable> failure) {
+	    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+	        List<Employee> chunk;
+	        while ((chunk = queue.take()) != END && failure.get() == null) {
+	            long committed = checkpoint.getRowsCommitted();
+	            Transaction tx = session.beginTransaction();
+	            try {
+	                for (Employee e : chunk) {
+	                    session.insert(e);
+	                }
+	                checkpoint.setRowsCommitted(committed + chunk.size());
+	                checkpoint.setUpdatedAt(Instant.now());
+	                session.update(checkpoint);
+	                tx.commit();
+	            } catch (RuntimeException ex) {
+	                checkpoint.setRowsCommitted(committed);
+	                if (tx.isActive()) {
+	                    tx.rollback();
+	                }
+	                throw ex;
+	            }
+	            loaded.addAndGet(chunk.size());
+	        }
+	    } catch (InterruptedException ex) {
+	        Thread.currentThread().interrupt();
+	        failure.compareAndSet(null, ex);
+	    } catch (RuntimeException ex) {
+	        log.error("Partition {} (emp_id {}..{}) stopped after {} committed rows", checkpoint.getPartition(),
+	                checkpoint.getRangeFrom(), checkpoint.getRangeTo(), checkpoint.getRowsCommitted(), ex);
+	        failure.compareAndSet(null, ex);
+	    }
+	}
+}
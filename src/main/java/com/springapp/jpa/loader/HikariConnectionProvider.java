@@ -0,0 +1,95 @@
+package com.springapp.jpa.loader;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hikari pool for the "pu" persistence unit, in place of Hibernate's built-in
+ * pool (which is not meant for production use). Reads the usual
+ * jakarta.persistence.jdbc.{url,user,password,driver} settings, plus
+ * hibernate.hikari.maximumPoolSize and hibernate.hikari.connectionTimeout
+ * (ms). Selected with hibernate.connection.provider_class.
+ */
+public class HikariConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+	public static final String MAXIMUM_POOL_SIZE = "hibernate.hikari.maximumPoolSize";
+
+	public static final String CONNECTION_TIMEOUT = "hibernate.hikari.connectionTimeout";
+
+	private HikariDataSource dataSource;
+
+	@Override
+	public void configure(Map<String, Object> settings) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName("bulk-load");
+		config.setJdbcUrl(setting(settings, "jakarta.persistence.jdbc.url"));
+		config.setUsername(setting(settings, "jakarta.persistence.jdbc.user"));
+		config.setPassword(setting(settings, "jakarta.persistence.jdbc.password"));
+		String driver = setting(settings, "jakarta.persistence.jdbc.driver");
+		if (driver != null) {
+			config.setDriverClassName(driver);
+		}
+		String poolSize = setting(settings, MAXIMUM_POOL_SIZE);
+		if (poolSize != null) {
+			config.setMaximumPoolSize(Integer.parseInt(poolSize));
+		}
+		String timeout = setting(settings, CONNECTION_TIMEOUT);
+		if (timeout != null) {
+			config.setConnectionTimeout(Long.parseLong(timeout));
+		}
+		dataSource = new HikariDataSource(config);
+	}
+
+	private static String setting(Map<String, Object> settings, String name) {
+		Object value = settings.get(name);
+		return value == null ? null : value.toString();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return dataSource.getConnection();
+	}
+
+	@Override
+	public void closeConnection(Connection connection) throws SQLException {
+		connection.close();
+	}
+
+	@Override
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	@Override
+	public boolean isUnwrappableAs(Class<?> type) {
+		return type.isAssignableFrom(getClass()) || type.isAssignableFrom(HikariDataSource.class);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(Class<T> type) {
+		if (type.isAssignableFrom(getClass())) {
+			return (T) this;
+		}
+		if (type.isAssignableFrom(HikariDataSource.class)) {
+			return (T) dataSource;
+		}
+		throw new UnknownUnwrapTypeException(type);
+	}
+
+	@Override
+	public void stop() {
+		if (dataSource != null) {
+			dataSource.close();
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.springapp.jpa.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.springapp.model.EmployeeOutbox;
+
+@Repository
+public interface EmployeeOutboxRepository extends JpaRepository<EmployeeOutbox, Long> {
+
+	// oldest pending events first, i.e. in commit order per employee
+	List<EmployeeOutbox> findAllByOrderByIdAsc(Limit limit);
+}
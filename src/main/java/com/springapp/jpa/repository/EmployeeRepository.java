@@ -1,19 +1,143 @@
 package com.springapp.jpa.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.springapp.dto.DepartmentSalaryStats;
+import com.springapp.dto.EmployeeProjection;
+import com.springapp.dto.EmployeeSetVersion;
 import com.springapp.model.Employee;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>, EmployeeRepositoryCustom {
 
+	// result ids cached in the query cache, rows come from the second-level cache
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "employee-by-department")
+	})
+	@Transactional(readOnly = true)
 	List<Employee> findByDepartment(String department);
 	
 	Employee findByEname(@Param("ename") String ename);
 
-}
\ No newline at end of file
+	@Query("select e.version from Employee e where e.empid = :id")
+	Optional<Long> findVersionById(@Param("id") Integer id);
+
+	// ETag of a department listing without loading its rows
+	@Query("""
+			select new com.springapp.dto.EmployeeSetVersion(count(e), coalesce(sum(e.empid), 0L),
+			       coalesce(sum(e.version), 0L), max(e.lastModified))
+			from Employee e where e.department = :department
+			""")
+	EmployeeSetVersion findSetVersionByDepartment(@Param("department") String department);
+
+	// keyset pagination: seek on the primary key instead of skipping rows
+	List<Employee> findAllByOrderByEmpidAsc(Limit limit);
+
+	List<Employee> findByEmpidGreaterThanOrderByEmpidAsc(Integer after, Limit limit);
+
+	// id/name/department only, for directory listings; results are not managed entities
+	List<EmployeeProjection> findSummaryByOrderByEmpidAsc(Limit limit);
+
+	List<EmployeeProjection> findSummaryByEmpidGreaterThanOrderByEmpidAsc(Integer after, Limit limit);
+
+	List<EmployeeProjection> findSummaryByDepartmentOrderByEmpidAsc(String department, Limit limit);
+
+	List<EmployeeProjection> findSummaryByDepartmentAndEmpidGreaterThanOrderByEmpidAsc(String department,
+			Integer after, Limit limit);
+
+	// per-department aggregates and top earner in one scan; rn = 1 keeps one row per department
+	@Query(value = """
+			SELECT department, employeeCount, totalSalary, averageSalary, minSalary, maxSalary,
+			       emp_id AS topEarnerId, e_name AS topEarnerName
+			FROM (
+			    SELECT department, emp_id, e_name,
+			           COUNT(*) OVER (PARTITION BY department) AS employeeCount,
+			           SUM(CAST(salary AS BIGINT)) OVER (PARTITION BY department) AS totalSalary,
+			           AVG(CAST(salary AS FLOAT)) OVER (PARTITION BY department) AS averageSalary,
+			           MIN(salary) OVER (PARTITION BY department) AS minSalary,
+			           MAX(salary) OVER (PARTITION BY department) AS maxSalary,
+			           ROW_NUMBER() OVER (PARTITION BY department ORDER BY salary DESC, emp_id) AS rn
+			    FROM employee
+			) t
+			WHERE rn = 1
+			ORDER BY department
+			""", nativeQuery = true)
+	List<DepartmentSalaryStats> findDepartmentSalaryStats();
+
+	// employees holding the n-th highest distinct salary (see SQL/1.Second Highest Salary.sql)
+	@Query(value = """
+			SELECT emp_id, e_name, email, department, salary, version, last_modified
+			FROM (
+			    SELECT emp_id, e_name, email, department, salary, version, last_modified,
+			           DENSE_RANK() OVER (ORDER BY salary DESC) AS rnk
+			    FROM employee
+			) t
+			WHERE rnk = :n
+			ORDER BY emp_id
+			""", nativeQuery = true)
+	List<Employee> findBySalaryRank(@Param("n") int n);
+
+	@Query(value = """
+			SELECT emp_id, e_name, email, department, salary, version, last_modified
+			FROM (
+			    SELECT emp_id, e_name, email, department, salary, version, last_modified,
+			           DENSE_RANK() OVER (ORDER BY salary DESC) AS rnk
+			    FROM employee
+			    WHERE department = :department
+			) t
+			WHERE rnk = :n
+			ORDER BY emp_id
+			""", nativeQuery = true)
+	List<Employee> findBySalaryRankInDepartment(@Param("n") int n, @Param("department") String department);
+
+	// top n distinct salaries of every department, ranked per department
+	@Query(value = """
+			SELECT emp_id, e_name, email, department, salary, version, last_modified
+			FROM (
+			    SELECT emp_id, e_name, email, department, salary, version, last_modified,
+			           DENSE_RANK() OVER (PARTITION BY department ORDER BY salary DESC) AS rnk
+			    FROM employee
+			) t
+			WHERE rnk <= :n
+			ORDER BY department, salary DESC, emp_id
+			""", nativeQuery = true)
+	List<Employee> findTopSalariesPerDepartment(@Param("n") int n);
+
+	// bulk delete support: ids are walked in keyset chunks, each chunk removed with one statement
+	@Query("select e.empid from Employee e where e.department = :department and e.empid > :after order by e.empid")
+	List<Integer> findIdsByDepartment(@Param("department") String department, @Param("after") Integer after,
+			Limit limit);
+
+	@Query("select e.empid from Employee e where e.empid in :ids")
+	List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Employee e where e.empid in :ids")
+	int deleteAllByIdIn(@Param("ids") Collection<Integer> ids);
+
+	// forward-only cursor for exports; must be consumed inside a transaction and closed
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("select e from Employee e order by e.empid")
+	Stream<Employee> streamAllOrderedById();
+
+}
@@ -0,0 +1,13 @@
+package com.springapp.jpa.repository;
+
+import com.springapp.dto.EmployeePatch;
+
+public interface EmployeeRepositoryCustom {
+
+	/**
+	 * Applies the non-null fields of the patch in one UPDATE and bumps the
+	 * version. Returns the number of rows changed: 0 when the row is missing,
+	 * the version does not match, or every field already has the given value.
+	 */
+	int patch(Integer id, EmployeePatch patch);
+}
@@ -0,0 +1,58 @@
+package com.springapp.jpa.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.springapp.dto.EmployeePatch;
+import com.springapp.model.Employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Override
+	public int patch(Integer id, EmployeePatch patch) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+		Root<Employee> e = update.from(Employee.class);
+
+		// only touch the columns that were sent, and only if one of them actually differs
+		List<Predicate> changed = new ArrayList<>();
+		set(cb, update, e.get("ename"), patch.ename(), changed);
+		set(cb, update, e.get("email"), patch.email(), changed);
+		set(cb, update, e.get("department"), patch.department(), changed);
+		set(cb, update, e.get("salary"), patch.salary(), changed);
+
+		Path<Long> version = e.get("version");
+		update.set(version, cb.sum(version, 1L));
+		update.set(e.<Instant>get("lastModified"), Instant.now());
+
+		List<Predicate> where = new ArrayList<>();
+		where.add(cb.equal(e.get("empid"), id));
+		if (patch.version() != null) {
+			where.add(cb.equal(version, patch.version()));
+		}
+		where.add(cb.or(changed.toArray(new Predicate[0])));
+		update.where(where.toArray(new Predicate[0]));
+
+		return em.createQuery(update).executeUpdate();
+	}
+
+	private static <T> void set(CriteriaBuilder cb, CriteriaUpdate<Employee> update, Path<T> column, T value,
+			List<Predicate> changed) {
+		if (value != null) {
+			update.set(column, value);
+			changed.add(cb.or(cb.isNull(column), cb.notEqual(column, value)));
+		}
+	}
+}
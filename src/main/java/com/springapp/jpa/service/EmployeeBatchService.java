@@ -0,0 +1,140 @@
+package com.springapp.jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springapp.dto.BatchChunkResult;
+import com.springapp.jpa.event.EmployeeEvent;
+import com.springapp.jpa.exception.InvalidBatchRowException;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.model.Employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Bulk writes. Inserts are persisted (never merged), so there is no SELECT
+ * before each INSERT, and Hibernate groups them into JDBC batches of
+ * hibernate.jdbc.batch_size. Deletes are one DELETE ... WHERE emp_id IN (...)
+ * per chunk. Every chunk runs in its own transaction.
+ */
+@Service
+public class EmployeeBatchService {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeBatchService.class);
+
+	// SQL Server accepts at most 2100 parameters per statement
+	private static final int MAX_IN_LIST = 2000;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final EmployeeRepository repo;
+
+	private final TransactionTemplate tx;
+
+	private final Cache cache;
+
+	private final ApplicationEventPublisher events;
+
+	@Value("${app.employees.batch.chunk-size:500}")
+	private int defaultChunkSize;
+
+	@Value("${app.employees.batch.max-chunk-size:5000}")
+	private int maxChunkSize;
+
+	public EmployeeBatchService(EmployeeRepository repo, PlatformTransactionManager txManager,
+			CacheManager cacheManager, ApplicationEventPublisher events) {
+		this.repo = repo;
+		this.tx = new TransactionTemplate(txManager);
+		this.cache = cacheManager.getCache(EmployeeService.EMPLOYEE_CACHE);
+		this.events = events;
+	}
+
+	// 400 before anything is written if a row cannot be a new employee
+	public List<BatchChunkResult> insertAll(List<Employee> employees, Integer chunkSize) {
+	    for (int i = 0; i < employees.size(); i++) {
+	        Employee e = employees.get(i);
+	        if (e.getVersion() != null) {
+	            throw new InvalidBatchRowException(i, e.getEmpid(), "version must not be set on a new employee");
+	        }
+	    }
+	    int size = chunkSize == null ? defaultChunkSize : Math.max(1, Math.min(chunkSize, maxChunkSize));
+	    List<BatchChunkResult> results = new ArrayList<>();
+
+	    for (int from = 0, chunk = 0; from < employees.size(); from += size, chunk++) {
+	        List<Employee> part = employees.subList(from, Math.min(from + size, employees.size()));
+	        try {
+	            insertChunk(part);
+	            results.add(BatchChunkResult.committed(chunk, from, part.size()));
+	        } catch (RuntimeException ex) {
+	            log.warn("Batch chunk {} ({} rows from index {}) rolled back: {}", chunk, part.size(), from, ex.toString());
+	            results.add(BatchChunkResult.failed(chunk, from, part.size(), ex.getMessage()));
+	        }
+	    }
+	    return results;
+	}
+
+	// Persists one chunk in a single transaction and leaves the persistence context empty
+	public void insertChunk(List<Employee> chunk) {
+	    tx.executeWithoutResult(status -> {
+	        try {
+	            for (Employee e : chunk) {
+	                em.persist(e);
+	            }
+	            em.flush();
+	            chunk.forEach(e -> events.publishEvent(new EmployeeEvent.Saved(e)));
+	        } finally {
+	            em.clear();
+	        }
+	    });
+	}
+
+	public int deleteByIds(List<Integer> ids) {
+	    int chunkSize = Math.min(defaultChunkSize, MAX_IN_LIST);
+	    int deleted = 0;
+	    for (int from = 0; from < ids.size(); from += chunkSize) {
+	        deleted += deleteChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+	    }
+	    return deleted;
+	}
+
+	public int deleteByDepartment(String department) {
+	    Limit chunk = Limit.of(Math.min(defaultChunkSize, MAX_IN_LIST));
+	    int deleted = 0;
+	    List<Integer> ids = repo.findIdsByDepartment(department, Integer.MIN_VALUE, chunk);
+	    while (!ids.isEmpty()) {
+	        deleted += deleteChunk(ids);
+	        ids = repo.findIdsByDepartment(department, ids.get(ids.size() - 1), chunk);
+	    }
+	    log.info("Deleted {} employees from department {}", deleted, department);
+	    return deleted;
+	}
+
+	// Deleted events only for the ids that were actually there
+	private int deleteChunk(List<Integer> ids) {
+	    List<Integer> existing = tx.execute(status -> {
+	        List<Integer> found = repo.findExistingIds(ids);
+	        if (!found.isEmpty()) {
+	            repo.deleteAllByIdIn(found);
+	            found.forEach(id -> events.publishEvent(new EmployeeEvent.Deleted(id)));
+	        }
+	        return found;
+	    });
+	    if (cache != null) {
+	        existing.forEach(cache::evict);
+	    }
+	    return existing.size();
+	}
+}
@@ -0,0 +1,93 @@
+package com.springapp.jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.springapp.model.Employee;
+
+/**
+ * One employee per CSV line: empid,ename,email,department,salary (the column
+ * order of EmployeeListOperations.toCsvLines). Used by the import endpoint and
+ * the offline bulk loader; parse throws IllegalArgumentException with a
+ * reason suitable for a rejected-line report.
+ */
+public final class EmployeeCsv {
+
+	public static final int COLUMNS = 5;
+
+	private EmployeeCsv() {
+	}
+
+	public static Employee parse(String line) {
+	    List<String> f = split(line);
+	    if (f.size() != COLUMNS) {
+	        throw new IllegalArgumentException("expected " + COLUMNS + " columns, got " + f.size());
+	    }
+	    Integer empid = parseInt(f.get(0), "empid");
+	    if (empid <= 0) {
+	        throw new IllegalArgumentException("empid must be positive");
+	    }
+	    String ename = required(f.get(1), "ename");
+	    String email = f.get(2).isBlank() ? null : f.get(2).trim();
+	    if (email != null && email.indexOf('@') < 1) {
+	        throw new IllegalArgumentException("invalid email '" + email + "'");
+	    }
+	    String department = required(f.get(3), "department");
+	    int salary = parseInt(f.get(4), "salary");
+	    if (salary < 0) {
+	        throw new IllegalArgumentException("salary must not be negative");
+	    }
+	    return new Employee(empid, ename, email, department, salary);
+	}
+
+	// RFC 4180 fields on one line: commas inside "quoted" fields, "" for a literal quote
+	private static List<String> split(String line) {
+	    List<String> fields = new ArrayList<>(COLUMNS);
+	    StringBuilder field = new StringBuilder();
+	    boolean quoted = false;
+	    for (int i = 0; i < line.length(); i++) {
+	        char c = line.charAt(i);
+	        if (quoted) {
+	            if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+	                field.append('"');
+	                i++;
+	            } else if (c == '"') {
+	                quoted = false;
+	            } else {
+	                field.append(c);
+	            }
+	        } else if (c == '"') {
+	            quoted = true;
+	        } else if (c == ',') {
+	            fields.add(field.toString());
+	            field.setLength(0);
+	        } else {
+	            field.append(c);
+	        }
+	    }
+	    if (quoted) {
+	        throw new IllegalArgumentException("unterminated quoted field");
+	    }
+	    fields.add(field.toString());
+	    return fields;
+	}
+
+	private static int parseInt(String value, String column) {
+	    try {
+	        return Integer.parseInt(value.trim());
+	    } catch (NumberFormatException ex) {
+	        throw new IllegalArgumentException(column + " is not a number: '" + value + "'");
+	    }
+	}
+
+	private static String required(String value, String column) {
+	    if (value.isBlank()) {
+	        throw new IllegalArgumentException(column + " is required");
+	    }
+	    return value.trim();
+	}
+
+	public static String stripBom(String line) {
+	    return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+	}
+}
@@ -0,0 +1,166 @@
+package com.springapp.jpa.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.springapp.dto.CsvImportSummary;
+import com.springapp.dto.CsvImportSummary.RejectedLine;
+import com.springapp.model.Employee;
+
+/**
+ * Imports employees from CSV (empid,ename,email,department,salary, the same
+ * column order as EmployeeListOperations.toCsvLines). The input is read one
+ * line at a time and only the current chunk is held in memory, so file size
+ * does not matter. Valid rows are written through EmployeeBatchService in
+ * chunks of chunk-size rows, one transaction each; when a chunk fails (e.g. a
+ * duplicate emp_id) its rows are retried one by one so only the bad lines are
+ * rejected. Lines longer than max-line-length characters are skipped without
+ * being buffered and rejected, so one runaway line cannot exhaust the heap.
+ */
+@Service
+public class EmployeeCsvImporter {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeCsvImporter.class);
+
+	private record Row(long line, Employee employee) {
+	}
+
+	private final EmployeeBatchService batchService;
+
+	@Value("${app.employees.import.chunk-size:1000}")
+	private int defaultChunkSize;
+
+	@Value("${app.employees.import.max-rejected-lines:1000}")
+	private int maxRejectedLines;
+
+	@Value("${app.employees.import.max-line-length:4096}")
+	private int maxLineLength;
+
+	public EmployeeCsvImporter(EmployeeBatchService batchService) {
+		this.batchService = batchService;
+	}
+
+	public CsvImportSummary importCsv(InputStream in, boolean header, Integer chunkSize) throws IOException {
+	    long start = System.nanoTime();
+	    int size = chunkSize == null || chunkSize < 1 ? defaultChunkSize : chunkSize;
+	    Progress progress = new Progress();
+	    List<Row> chunk = new ArrayList<>(size);
+
+	    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+	    StringBuilder buf = new StringBuilder();
+	    long lineNo = 0;
+	    while (true) {
+	        int length = readLine(reader, buf);
+	        if (length < 0) {
+	            break;
+	        }
+	        lineNo++;
+	        if (length > maxLineLength) {
+	            progress.reject(lineNo, "line longer than " + maxLineLength + " characters");
+	            continue;
+	        }
+	        String line = buf.toString();
+	        if (lineNo == 1) {
+	            line = EmployeeCsv.stripBom(line);
+	            if (header) {
+	                continue;
+	            }
+	        }
+	        if (line.isBlank()) {
+	            continue;
+	        }
+	        try {
+	            chunk.add(new Row(lineNo, EmployeeCsv.parse(line)));
+	        } catch (IllegalArgumentException ex) {
+	            progress.reject(lineNo, ex.getMessage());
+	            continue;
+	        }
+	        if (chunk.size() == size) {
+	            write(chunk, progress);
+	            chunk.clear();
+	        }
+	    }
+	    if (!chunk.isEmpty()) {
+	        write(chunk, progress);
+	    }
+
+	    long millis = (System.nanoTime() - start) / 1_000_000;
+	    log.info("CSV import: {} lines, {} imported, {} rejected in {} ms", lineNo, progress.imported, progress.rejected, millis);
+	    return new CsvImportSummary(lineNo, progress.imported, progress.rejected, progress.rejectedLines,
+	            progress.rejected > progress.rejectedLines.size(), millis);
+	}
+
+	// next line into buf without its \n, \r\n or \r; returns its full length, or -1 at the end of the input.
+	// Only the first maxLineLength characters are kept, the rest of a longer line is read and dropped.
+	private int readLine(BufferedReader reader, StringBuilder buf) throws IOException {
+	    buf.setLength(0);
+	    int length = 0;
+	    int c = reader.read();
+	    if (c == -1) {
+	        return -1;
+	    }
+	    while (c != -1 && c != '\n') {
+	        if (c == '\r') {
+	            reader.mark(1);
+	            if (reader.read() != '\n') {
+	                reader.reset();
+	            }
+	            break;
+	        }
+	        if (length++ < maxLineLength) {
+	            buf.append((char) c);
+	        }
+	        c = reader.read();
+	    }
+	    return length;
+	}
+
+	private void write(List<Row> chunk, Progress progress) {
+	    try {
+	        batchService.insertChunk(chunk.stream().map(Row::employee).toList());
+	        progress.imported += chunk.size();
+	    } catch (RuntimeException ex) {
+	        log.warn("CSV chunk at line {} rolled back, retrying row by row: {}", chunk.get(0).line(), ex.toString());
+	        for (Row row : chunk) {
+	            row.employee().setVersion(null); // set by the rolled-back persist
+	            try {
+	                batchService.insertChunk(List.of(row.employee()));
+	                progress.imported++;
+	            } catch (RuntimeException rowEx) {
+	                progress.reject(row.line(), rootMessage(rowEx));
+	            }
+	        }
+	    }
+	}
+
+	private static String rootMessage(Throwable ex) {
+	    Throwable root = ex;
+	    while (root.getCause() != null && root.getCause() != root) {
+	        root = root.getCause();
+	    }
+	    return root.getMessage();
+	}
+
+	private final class Progress {
+	    long imported;
+	    long rejected;
+	    final List<RejectedLine> rejectedLines = new ArrayList<>();
+
+	    void reject(long line, String reason) {
+	        rejected++;
+	        if (rejectedLines.size() < maxRejectedLines) {
+	            rejectedLines.add(new RejectedLine(line, reason));
+	        }
+	    }
+	}
+}
@@ -1,70 +1,276 @@
 package com.springapp.jpa.service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.springapp.dto.CursorPage;
+import com.springapp.dto.DepartmentSalaryStats;
+import com.springapp.dto.EmployeePatch;
+import com.springapp.dto.EmployeeProjection;
+import com.springapp.dto.EmployeeSetVersion;
+import com.springapp.jpa.event.EmployeeEvent;
+import com.springapp.jpa.exception.EmployeeAlreadyExistsException;
 import com.springapp.jpa.exception.EmployeeNotFoundException;
+import com.springapp.jpa.exception.EmployeeVersionConflictException;
 import com.springapp.jpa.repository.EmployeeRepository;
 import com.springapp.model.Employee;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
+@CacheConfig(cacheNames = EmployeeService.EMPLOYEE_CACHE)
 public class EmployeeService {
+
+	// read-through cache by emp_id, configured with spring.cache.* (type=none turns it off)
+	public static final String EMPLOYEE_CACHE = "employees";
+
+	// short-lived, see CacheConfig
+	public static final String DEPARTMENT_STATS_CACHE = "departmentStats";
 	
 	private static final Logger log = LoggerFactory.getLogger(EmployeeService.class);
 
 	@Autowired
 	private EmployeeRepository repo;
 
-	public EmployeeService(EmployeeRepository repo) {
+	@PersistenceContext
+	private EntityManager em;
+
+	@Autowired
+	private ApplicationEventPublisher events;
+
+	@Value("${app.employees.page.default-limit:100}")
+	private int defaultPageLimit;
+
+	@Value("${app.employees.page.max-limit:1000}")
+	private int maxPageLimit;
+
+	private final int exportClearEvery;
+
+	// concurrent cache misses for the same id / department share one query
+	private final SingleFlight<Integer, Optional<Employee>> byIdFlights;
+
+	private final SingleFlight<String, List<Employee>> byDepartmentFlights;
+
+	// read-write, so routed to the primary: a lagging replica would put the pre-write row back into a cache
+	// right after the write evicted it, and it would stay there for the cache's TTL
+	private final TransactionTemplate cacheFill;
+
+	public EmployeeService(EmployeeRepository repo, MeterRegistry meters, PlatformTransactionManager txManager,
+			@Value("${app.employees.export.clear-every:1000}") int exportClearEvery,
+			@Value("${app.employees.lookup.coalesce-timeout:5s}") Duration coalesceTimeout) {
+		if (exportClearEvery < 1) {
+			throw new IllegalArgumentException("app.employees.export.clear-every must be at least 1, was " + exportClearEvery);
+		}
 		this.repo = repo;
+		this.exportClearEvery = exportClearEvery;
+		this.byIdFlights = new SingleFlight<>("findById", meters, coalesceTimeout, found -> found.map(Employee::copy));
+		this.byDepartmentFlights = new SingleFlight<>("findByDepartment", meters, coalesceTimeout,
+				list -> list.stream().map(Employee::copy).toList());
+		this.cacheFill = new TransactionTemplate(txManager);
 	}
 
+	// no service transaction here: waiters must not hold a connection, only the leader's lookup opens one
+	@Cacheable(key = "#id", unless = "#result == null")
 	public Optional<Employee> findById(Integer id) {
-		return repo.findById(id);
+		return coalesced(byIdFlights, id, () -> cacheFill.execute(status -> repo.findById(id)));
 	}
 	
-	// in EmployeeService
+	@Cacheable(key = "#id")
 	public Employee findByIdOrThrow(Integer id) {
-	    return repo.findById(id)
-	               .orElseThrow(() -> new EmployeeNotFoundException(id));
+		return coalesced(byIdFlights, id, () -> cacheFill.execute(status -> repo.findById(id)))
+				.orElseThrow(() -> new EmployeeNotFoundException(id));
+	}
+
+	// inside a caller's transaction the entity must come from its own persistence context
+	private static <K, V> V coalesced(SingleFlight<K, V> flights, K key, Supplier<V> call) {
+	    return TransactionSynchronizationManager.isActualTransactionActive()
+	            ? call.get()
+	            : flights.execute(key, call);
 	}
 	
+	@Transactional(readOnly = true)
+	public EmployeeSetVersion departmentVersion(String department) {
+	    return repo.findSetVersionByDepartment(department);
+	}
+
+	@Transactional(readOnly = true)
 	public List<Employee> findAll() {
 	    return repo.findAll();
 	}
 
+	// Keyset page ordered by emp_id; fetches one extra row to know if there is a next page
+	@Transactional(readOnly = true)
+	public CursorPage<Employee> findPage(Integer after, Integer limit) {
+	    int size = pageSize(limit);
+	    Limit fetch = Limit.of(size + 1);
+
+	    List<Employee> rows = after == null
+	            ? repo.findAllByOrderByEmpidAsc(fetch)
+	            : repo.findByEmpidGreaterThanOrderByEmpidAsc(after, fetch);
+	    return toPage(rows, size, Employee::getEmpid);
+	}
+
+	// Same paging as findPage, but only id, name and department, optionally for one department
+	@Transactional(readOnly = true)
+	public CursorPage<EmployeeProjection> findSummaryPage(String department, Integer after, Integer limit) {
+	    int size = pageSize(limit);
+	    Limit fetch = Limit.of(size + 1);
+
+	    List<EmployeeProjection> rows;
+	    if (department == null) {
+	        rows = after == null
+	                ? repo.findSummaryByOrderByEmpidAsc(fetch)
+	                : repo.findSummaryByEmpidGreaterThanOrderByEmpidAsc(after, fetch);
+	    } else {
+	        rows = after == null
+	                ? repo.findSummaryByDepartmentOrderByEmpidAsc(department, fetch)
+	                : repo.findSummaryByDepartmentAndEmpidGreaterThanOrderByEmpidAsc(department, after, fetch);
+	    }
+	    return toPage(rows, size, EmployeeProjection::getEmpid);
+	}
+
+	private int pageSize(Integer limit) {
+	    return limit == null ? defaultPageLimit : Math.max(1, Math.min(limit, maxPageLimit));
+	}
+
+	private static <T> CursorPage<T> toPage(List<T> rows, int size, Function<T, Integer> key) {
+	    if (rows.size() <= size) {
+	        return new CursorPage<>(rows, null);
+	    }
+	    List<T> items = rows.subList(0, size);
+	    return new CursorPage<>(items, key.apply(items.get(size - 1)));
+	}
+
+	// Feeds every employee to the sink in emp_id order without holding the table in memory
+	@Transactional(readOnly = true)
+	public long exportAll(Consumer<Employee> sink) {
+	    long count = 0;
+	    try (Stream<Employee> rows = repo.streamAllOrderedById()) {
+	        for (Employee e : (Iterable<Employee>) rows::iterator) {
+	            sink.accept(e);
+	            if (++count % exportClearEvery == 0) {
+	                em.clear(); // drop already-written entities from the persistence context
+	            }
+	        }
+	    }
+	    log.info("Exported {} employees", count);
+	    return count;
+	}
+
+	// one transaction with the event, so an outbox row commits together with the save; without a
+	// version this is a create (persist, not merge), so an existing emp_id is a conflict
+	@Transactional
 	public Employee saveEmployee(Employee e) {
-	    return repo.save(e);
+	    if (e.getVersion() == null && e.getEmpid() != null && repo.existsById(e.getEmpid())) {
+	        throw new EmployeeAlreadyExistsException(e.getEmpid());
+	    }
+	    Employee saved = repo.save(e);
+	    events.publishEvent(new EmployeeEvent.Saved(saved));
+	    return saved;
 	}
 
+	// a version in the body must match the row's (409 otherwise); without one the last write wins
 	@Transactional
 	public Employee updateEmployee(Integer id, Employee newData) {
 	    Employee existing = findByIdOrThrow(id);
+	    if (newData.getVersion() != null && !newData.getVersion().equals(existing.getVersion())) {
+	        throw new EmployeeVersionConflictException(id, newData.getVersion(), existing.getVersion());
+	    }
 
 	    existing.setEname(newData.getEname());
 	    existing.setEmail(newData.getEmail());
 	    existing.setDepartment(newData.getDepartment());
 	    existing.setSalary(newData.getSalary());
 
-	    return repo.save(existing);
+	    Employee saved = repo.save(existing);
+	    events.publishEvent(new EmployeeEvent.Saved(saved));
+	    return saved;
+	}
+
+	// Partial update in a single UPDATE statement; returns false when nothing had to change
+	@Transactional
+	public boolean patchEmployee(Integer id, EmployeePatch patch) {
+	    if (patch.isEmpty()) {
+	        checkVersion(id, patch.version());
+	        return false;
+	    }
+	    if (repo.patch(id, patch) == 1) {
+	        events.publishEvent(new EmployeeEvent.Patched(id, patch));
+	        return true;
+	    }
+	    // no row updated: missing, stale version, or values already equal
+	    checkVersion(id, patch.version());
+	    return false;
+	}
+
+	private void checkVersion(Integer id, Long expected) {
+	    Long actual = repo.findVersionById(id).orElseThrow(() -> new EmployeeNotFoundException(id));
+	    if (expected != null && !expected.equals(actual)) {
+	        throw new EmployeeVersionConflictException(id, expected, actual);
+	    }
 	}
 
 	@Transactional
 	public void deleteEmployee(Integer id) {
 	    Employee existing = findByIdOrThrow(id);
 	    repo.delete(existing);
+	    events.publishEvent(new EmployeeEvent.Deleted(id));
+	}
+
+	// every write above publishes an EmployeeEvent; evicting before the commit would let a concurrent miss
+	// put the old row back for the cache's TTL
+	@TransactionalEventListener(fallbackExecution = true)
+	@CacheEvict(key = "#event.empid()")
+	public void evictOnCommit(EmployeeEvent event) {
 	}
 
 	public List<Employee> findByDepartment(String department) {
-	    return repo.findByDepartment(department);
+	    return coalesced(byDepartmentFlights, department, () -> repo.findByDepartment(department));
+	}
+
+	// computed by the database; cached for app.employees.stats.cache-ttl, so read from the primary
+	@Cacheable(cacheNames = DEPARTMENT_STATS_CACHE, key = "'all'")
+	public List<DepartmentSalaryStats> departmentSalaryStats() {
+		return cacheFill.execute(status -> repo.findDepartmentSalaryStats());
+	}
+
+	// DENSE_RANK = n, overall or within one department
+	@Transactional(readOnly = true)
+	public List<Employee> findBySalaryRank(int n, String department) {
+		return department == null
+				? repo.findBySalaryRank(n)
+				: repo.findBySalaryRankInDepartment(n, department);
+	}
+
+	@Transactional(readOnly = true)
+	public List<Employee> findTopSalariesPerDepartment(int n) {
+		return repo.findTopSalariesPerDepartment(n);
 	}
 
+	@Transactional(readOnly = true)
 	public Employee findByEname(String ename) {
 		return repo.findByEname(ename);
 	}
@@ -0,0 +1,170 @@
+package com.springapp.jpa.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.springapp.dto.EmployeePatch;
+import com.springapp.dto.EmployeeSuggestion;
+import com.springapp.jpa.event.EmployeeEvent;
+import com.springapp.model.Employee;
+
+/**
+ * In-memory, case-insensitive prefix index over employee names and emails.
+ * Keys are kept in a sorted set as "term\0id", so a prefix lookup is a
+ * tailSet walk that stops at the first key not starting with the prefix.
+ * Loaded in the background after startup and kept current from committed
+ * EmployeeEvents. Events that arrive before the load has finished are held
+ * back and replayed on top of it, so the table scan cannot overwrite a newer
+ * change (or bring back a deleted row) with the older state it read.
+ */
+@Component
+public class EmployeeTypeaheadIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeTypeaheadIndex.class);
+
+	private static final char SEP = '\0';
+
+	private final EmployeeService service;
+
+	private final Map<Integer, EmployeeSuggestion> entries = new ConcurrentHashMap<>();
+
+	private final ConcurrentSkipListSet<String> keys = new ConcurrentSkipListSet<>();
+
+	// events seen while loading, in commit order; null once loaded
+	private List<EmployeeEvent> pending = new ArrayList<>();
+
+	public EmployeeTypeaheadIndex(EmployeeService service) {
+		this.service = service;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadInBackground() {
+		Thread loader = new Thread(this::load, "typeahead-load");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	// scans the table, then replays the events held back meanwhile; searches see a partial index until then
+	public void load() {
+		long start = System.nanoTime();
+		try {
+			long count = service.exportAll(this::put);
+			log.info("Typeahead index loaded {} employees in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+		} catch (RuntimeException ex) {
+			log.error("Typeahead index load failed, only changes from now on will be searchable", ex);
+		} finally {
+			synchronized (this) {
+				pending.forEach(this::apply);
+				pending = null;
+			}
+		}
+	}
+
+	public synchronized boolean isLoaded() {
+		return pending == null;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEmployeeEvent(EmployeeEvent event) {
+		synchronized (this) {
+			if (pending != null) {
+				pending.add(event);
+				return;
+			}
+		}
+		apply(event);
+	}
+
+	private void apply(EmployeeEvent event) {
+		if (event instanceof EmployeeEvent.Saved saved) {
+			put(saved.employee());
+		} else if (event instanceof EmployeeEvent.Patched patched) {
+			EmployeePatch patch = patched.patch();
+			EmployeeSuggestion old = entries.get(patched.empid());
+			if (old != null && (patch.ename() != null || patch.email() != null)) {
+				put(new EmployeeSuggestion(old.empid(),
+						patch.ename() != null ? patch.ename() : old.ename(),
+						patch.email() != null ? patch.email() : old.email()));
+			}
+		} else if (event instanceof EmployeeEvent.Deleted deleted) {
+			remove(deleted.empid());
+		}
+	}
+
+	public List<EmployeeSuggestion> search(String prefix, int limit) {
+		String q = normalize(prefix);
+		if (q.isEmpty()) {
+			return List.of();
+		}
+		Set<Integer> ids = new LinkedHashSet<>();
+		for (String key : keys.tailSet(q)) {
+			if (!key.startsWith(q) || ids.size() >= limit) {
+				break;
+			}
+			ids.add(Integer.valueOf(key.substring(key.lastIndexOf(SEP) + 1)));
+		}
+		List<EmployeeSuggestion> hits = new ArrayList<>(ids.size());
+		for (Integer id : ids) {
+			EmployeeSuggestion s = entries.get(id);
+			if (s != null) {
+				hits.add(s);
+			}
+		}
+		return hits;
+	}
+
+	private void put(Employee e) {
+		put(new EmployeeSuggestion(e.getEmpid(), e.getEname(), e.getEmail()));
+	}
+
+	private synchronized void put(EmployeeSuggestion s) {
+		remove(s.empid());
+		entries.put(s.empid(), s);
+		keys.addAll(keysOf(s));
+	}
+
+	private synchronized void remove(Integer id) {
+		EmployeeSuggestion old = entries.remove(id);
+		if (old != null) {
+			keys.removeAll(keysOf(old));
+		}
+	}
+
+	// full name, each word of the name, and the email
+	private static Set<String> keysOf(EmployeeSuggestion s) {
+		Set<String> terms = new LinkedHashSet<>();
+		String name = normalize(s.ename());
+		if (!name.isEmpty()) {
+			terms.add(name);
+			for (String word : name.split("\\s+")) {
+				terms.add(word);
+			}
+		}
+		String email = normalize(s.email());
+		if (!email.isEmpty()) {
+			terms.add(email);
+		}
+		Set<String> result = new LinkedHashSet<>();
+		for (String term : terms) {
+			result.add(term + SEP + s.empid());
+		}
+		return result;
+	}
+
+	private static String normalize(String value) {
+		return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+	}
+}
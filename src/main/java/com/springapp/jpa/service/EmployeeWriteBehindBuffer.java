@@ -0,0 +1,235 @@
+package com.springapp.jpa.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springapp.dto.IngestStatus;
+import com.springapp.jpa.exception.IngestBufferClosedException;
+import com.springapp.jpa.exception.IngestBufferFullException;
+import com.springapp.model.Employee;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind mode for POST /employees (app.employees.write-behind.enabled).
+ * Creates are queued in a bounded buffer and written by one flusher thread in
+ * chunks of batch-size rows, or whatever has arrived max-delay after the first
+ * queued row. A full buffer rejects the create instead of blocking the caller.
+ * If a chunk fails its rows are retried one by one, so one bad row only fails
+ * itself. Outcomes are kept for status-ttl under the returned tracking id.
+ * Rows still queued at shutdown are flushed before the context closes. The
+ * buffer stops after the web server's graceful shutdown, so requests still
+ * in flight get their rows queued; anything arriving after that is refused
+ * with a 503 rather than acknowledged and lost.
+ */
+@Component
+public class EmployeeWriteBehindBuffer implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehindBuffer.class);
+
+	private record Pending(String trackingId, Employee employee) {
+	}
+
+	private final EmployeeBatchService batchService;
+
+	private final boolean enabled;
+
+	private final int capacity;
+
+	private final int batchSize;
+
+	private final long maxDelayNanos;
+
+	private final BlockingQueue<Pending> queue;
+
+	private final Cache<String, IngestStatus> statuses;
+
+	private final Timer flushTimer;
+
+	private final DistributionSummary batchSizes;
+
+	private final Counter rejected;
+
+	// guards running against submit, so no row is offered once stop has let the flusher drain
+	private final Object lock = new Object();
+
+	private volatile boolean running;
+
+	private Thread flusher;
+
+	public EmployeeWriteBehindBuffer(EmployeeBatchService batchService, MeterRegistry meters,
+			@Value("${app.employees.write-behind.enabled:false}") boolean enabled,
+			@Value("${app.employees.write-behind.capacity:10000}") int capacity,
+			@Value("${app.employees.write-behind.batch-size:500}") int batchSize,
+			@Value("${app.employees.write-behind.max-delay:200ms}") Duration maxDelay,
+			@Value("${app.employees.write-behind.status-ttl:10m}") Duration statusTtl) {
+		this.batchService = batchService;
+		this.enabled = enabled;
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.statuses = Caffeine.newBuilder().expireAfterWrite(statusTtl).build();
+		this.flushTimer = Timer.builder("employees.ingest.flush")
+				.description("Time to write one write-behind chunk")
+				.publishPercentileHistogram()
+				.register(meters);
+		this.batchSizes = DistributionSummary.builder("employees.ingest.batch.size")
+				.description("Rows per write-behind chunk")
+				.register(meters);
+		this.rejected = Counter.builder("employees.ingest.rejected")
+				.description("Creates rejected because the write-behind buffer was full")
+				.register(meters);
+		Gauge.builder("employees.ingest.queue.depth", queue, BlockingQueue::size)
+				.description("Creates accepted but not yet written")
+				.register(meters);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public IngestStatus submit(Employee employee) {
+		String trackingId = UUID.randomUUID().toString();
+		IngestStatus status = IngestStatus.queued(trackingId, employee.getEmpid());
+		statuses.put(trackingId, status);
+		synchronized (lock) {
+			if (!running) {
+				statuses.invalidate(trackingId);
+				throw new IngestBufferClosedException();
+			}
+			if (!queue.offer(new Pending(trackingId, employee))) {
+				statuses.invalidate(trackingId);
+				rejected.increment();
+				throw new IngestBufferFullException(capacity);
+			}
+		}
+		return status;
+	}
+
+	public Optional<IngestStatus> status(String trackingId) {
+		return Optional.ofNullable(statuses.getIfPresent(trackingId));
+	}
+
+	@Override
+	public void start() {
+		if (!enabled || running) {
+			return;
+		}
+		synchronized (lock) {
+			running = true;
+		}
+		flusher = new Thread(this::runFlusher, "employee-write-behind");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	// stops accepting, then lets the flusher drain what is already queued
+	@Override
+	public void stop() {
+		if (!running) {
+			return;
+		}
+		synchronized (lock) {
+			running = false;
+		}
+		try {
+			flusher.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (!queue.isEmpty()) {
+			log.warn("Write-behind buffer stopped with {} creates not written", queue.size());
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	// stops once the web server has finished its graceful shutdown, not before it
+	@Override
+	public int getPhase() {
+		return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+	}
+
+	private void runFlusher() {
+		List<Pending> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				collect(batch);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			if (!batch.isEmpty()) {
+				flush(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	// waits for a first row, then fills the batch until it is full or max-delay has passed
+	private void collect(List<Pending> batch) throws InterruptedException {
+		Pending first = queue.poll(maxDelayNanos, TimeUnit.NANOSECONDS);
+		if (first == null) {
+			return;
+		}
+		batch.add(first);
+		long deadline = System.nanoTime() + maxDelayNanos;
+		while (batch.size() < batchSize) {
+			queue.drainTo(batch, batchSize - batch.size());
+			long remaining = deadline - System.nanoTime();
+			if (batch.size() >= batchSize || remaining <= 0 || !running) {
+				return;
+			}
+			Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+		}
+	}
+
+	private void flush(List<Pending> batch) {
+		batchSizes.record(batch.size());
+		try {
+			flushTimer.record(() -> batchService.insertChunk(batch.stream().map(Pending::employee).toList()));
+			batch.forEach(p -> statuses.asMap().computeIfPresent(p.trackingId(), (id, s) -> s.committed()));
+		} catch (RuntimeException ex) {
+			log.warn("Write-behind chunk of {} rows rolled back, retrying row by row: {}", batch.size(), ex.toString());
+			batch.forEach(this::flushOne);
+		}
+	}
+
+	private void flushOne(Pending pending) {
+		Employee employee = pending.employee();
+		employee.setVersion(null); // set by the rolled-back persist; null marks the row as new again
+		try {
+			batchService.insertChunk(List.of(employee));
+			statuses.asMap().computeIfPresent(pending.trackingId(), (id, s) -> s.committed());
+		} catch (RuntimeException ex) {
+			statuses.asMap().computeIfPresent(pending.trackingId(), (id, s) -> s.failed(ex.getMessage()));
+		}
+	}
+}
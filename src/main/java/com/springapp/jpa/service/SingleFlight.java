@@ -0,0 +1,94 @@
+package com.springapp.jpa.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs
+ * the lookup, callers arriving while it is in flight wait up to maxWait for
+ * its result (or exception). Every caller, the first included, gets its own
+ * copy, so no caller (or cache) holds an entity managed by the EntityManager
+ * of the thread that ran the lookup. Nothing is kept once the call
+ * completes, so this is not a cache. Counted as
+ * employees.lookup.calls{operation, outcome=executed|collapsed}.
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	private final Counter executed;
+
+	private final Counter collapsed;
+
+	private final String operation;
+
+	private final Duration maxWait;
+
+	private final UnaryOperator<V> copy;
+
+	public SingleFlight(String operation, MeterRegistry meters, Duration maxWait, UnaryOperator<V> copy) {
+		this.operation = operation;
+		this.maxWait = maxWait;
+		this.copy = copy;
+		this.executed = Counter.builder("employees.lookup.calls")
+				.description("Employee lookups, by whether they ran or shared an in-flight call")
+				.tag("operation", operation)
+				.tag("outcome", "executed")
+				.register(meters);
+		this.collapsed = Counter.builder("employees.lookup.calls")
+				.description("Employee lookups, by whether they ran or shared an in-flight call")
+				.tag("operation", operation)
+				.tag("outcome", "collapsed")
+				.register(meters);
+	}
+
+	public V execute(K key, Supplier<V> call) {
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+		if (leader != null) {
+			collapsed.increment();
+			return copy.apply(await(leader));
+		}
+		executed.increment();
+		try {
+			V result = call.get();
+			mine.complete(result);
+			return copy.apply(result);
+		} catch (RuntimeException | Error ex) {
+			mine.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private V await(CompletableFuture<V> leader) {
+		try {
+			return leader.copy().orTimeout(maxWait.toMillis(), TimeUnit.MILLISECONDS).join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof TimeoutException) {
+				throw new QueryTimeoutException("Gave up after " + maxWait.toMillis() + " ms waiting for an in-flight "
+						+ operation + " lookup");
+			}
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (ex.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+}
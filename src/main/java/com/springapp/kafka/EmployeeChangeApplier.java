@@ -0,0 +1,246 @@
+package com.springapp.kafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.dto.EmployeeChangeEvent;
+import com.springapp.jpa.event.EmployeeEvent;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.jpa.service.EmployeeService;
+import com.springapp.jpa.service.EmployeeTypeaheadIndex;
+import com.springapp.model.Employee;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Applies EmployeeChangeEvents (as published by EmployeeOutboxRelay) to the
+ * employee table. The records handed over are folded per emp_id and written
+ * in one transaction: one SELECT ... IN for the existing rows, then batched
+ * inserts, updates and deletes.
+ *
+ * Events are applied as they come: neither the outbox-id header nor the
+ * event's row version is checked against what is already stored (the row
+ * versions here are this database's own). A replay after a failed commit or a
+ * rebalance therefore applies older events again, and a row goes back to an
+ * older state until the replay reaches the newer events of the same emp_id,
+ * which follow in offset order.
+ *
+ * If the database is unavailable the exception is thrown to the caller, which
+ * retries the same records later. Any other failure (a bad row) applies the
+ * records one by one, skipping and logging the ones that fail, so one poison
+ * record cannot stall a partition.
+ *
+ * Writes go straight through the repository, not EmployeeService, so no
+ * EmployeeEvents or outbox rows are produced for them (that would echo them
+ * back to the topic). What the events would have refreshed is refreshed here
+ * once the transaction has committed: the applied rows are evicted from the
+ * employees cache and put into (or removed from) the typeahead index, and the
+ * departmentStats cache is cleared.
+ */
+public class EmployeeChangeApplier implements KeyOrderedConsumer.Handler<String, String> {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeChangeApplier.class);
+
+	private final EmployeeRepository repo;
+
+	private final TransactionTemplate tx;
+
+	private final ObjectMapper mapper;
+
+	private final Cache cache;
+
+	private final Cache statsCache;
+
+	private final EmployeeTypeaheadIndex typeahead;
+
+	private final Counter applied;
+
+	private final Counter rejected;
+
+	private final Timer lag;
+
+	public EmployeeChangeApplier(EmployeeRepository repo, PlatformTransactionManager txManager, ObjectMapper mapper,
+			CacheManager cacheManager, EmployeeTypeaheadIndex typeahead, MeterRegistry meters) {
+		this.repo = repo;
+		this.tx = new TransactionTemplate(txManager);
+		this.mapper = mapper;
+		this.cache = cacheManager.getCache(EmployeeService.EMPLOYEE_CACHE);
+		this.statsCache = cacheManager.getCache(EmployeeService.DEPARTMENT_STATS_CACHE);
+		this.typeahead = typeahead;
+		this.applied = Counter.builder("employees.consumer.records")
+				.description("Change events applied to the database")
+				.register(meters);
+		this.rejected = Counter.builder("employees.consumer.rejected")
+				.description("Change events skipped because they could not be read or applied")
+				.register(meters);
+		this.lag = Timer.builder("employees.consumer.lag")
+				.description("Time from the record's Kafka timestamp to its database commit")
+				.publishPercentileHistogram()
+				.register(meters);
+	}
+
+	@Override
+	public void handle(List<ConsumerRecord<String, String>> records) {
+		Map<ConsumerRecord<String, String>, EmployeeChangeEvent> events = new LinkedHashMap<>();
+		for (ConsumerRecord<String, String> record : records) {
+			EmployeeChangeEvent event = read(record);
+			if (event != null) {
+				events.put(record, event);
+			}
+		}
+		try {
+			apply(events);
+		} catch (CannotCreateTransactionException | DataAccessResourceFailureException
+				| TransientDataAccessException ex) {
+			throw ex;
+		} catch (RuntimeException ex) {
+			log.warn("Batch of {} records failed, applying them one by one: {}", records.size(), ex.toString());
+			applyOneByOne(events);
+		}
+	}
+
+	private void applyOneByOne(Map<ConsumerRecord<String, String>, EmployeeChangeEvent> events) {
+		events.forEach((record, event) -> {
+			try {
+				apply(Map.of(record, event));
+			} catch (CannotCreateTransactionException | DataAccessResourceFailureException
+					| TransientDataAccessException ex) {
+				throw ex;
+			} catch (RuntimeException ex) {
+				rejected.increment();
+				log.warn("Skipping {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), ex.toString());
+			}
+		});
+	}
+
+	// null (and counted as rejected) when the value is not an EmployeeChangeEvent
+	private EmployeeChangeEvent read(ConsumerRecord<String, String> record) {
+		try {
+			EmployeeChangeEvent event = mapper.readValue(record.value(), EmployeeChangeEvent.class);
+			if (event.type() != null && event.empid() != null) {
+				return event;
+			}
+		} catch (JsonProcessingException | IllegalArgumentException ex) {
+			// fall through
+		}
+		rejected.increment();
+		log.warn("Skipping unreadable record {}-{}@{}", record.topic(), record.partition(), record.offset());
+		return null;
+	}
+
+	// folds the events per emp_id into the final row (null = deleted) and writes the difference
+	private void apply(Map<ConsumerRecord<String, String>, EmployeeChangeEvent> records) {
+		if (records.isEmpty()) {
+			return;
+		}
+		List<EmployeeChangeEvent> events = List.copyOf(records.values());
+		Map<Integer, Employee> applied = tx.execute(status -> {
+			Map<Integer, Employee> existing = new HashMap<>();
+			repo.findAllById(events.stream().map(EmployeeChangeEvent::empid).distinct().toList())
+					.forEach(e -> existing.put(e.getEmpid(), e));
+
+			Map<Integer, Employee> target = new LinkedHashMap<>();
+			for (EmployeeChangeEvent event : events) {
+				Integer id = event.empid();
+				Employee current = target.containsKey(id) ? target.get(id) : existing.get(id);
+				switch (event.type()) {
+					case SAVED -> {
+						Employee row = current != null ? current : new Employee(id, null, null, null, 0);
+						row.setEname(event.ename());
+						row.setEmail(event.email());
+						row.setDepartment(event.department());
+						row.setSalary(event.salary() != null ? event.salary() : 0);
+						target.put(id, row);
+					}
+					case PATCHED -> {
+						if (current != null) {
+							patch(current, event);
+						}
+						target.put(id, current);
+					}
+					case DELETED -> target.put(id, null);
+				}
+			}
+
+			List<Employee> inserts = new ArrayList<>();
+			List<Employee> deletes = new ArrayList<>();
+			target.forEach((id, row) -> {
+				Employee base = existing.get(id);
+				if (row == null) {
+					if (base != null) {
+						deletes.add(base);
+					}
+				} else if (base == null) {
+					inserts.add(row);
+				} else if (row != base) {
+					copy(row, base); // deleted and saved again in this batch: update the existing row
+				}
+			});
+			repo.deleteAll(deletes);
+			repo.saveAll(inserts);
+			return target;
+		});
+
+		this.applied.increment(events.size());
+		refresh(applied);
+		long now = System.currentTimeMillis();
+		for (ConsumerRecord<String, String> record : records.keySet()) {
+			if (record.timestamp() >= 0) {
+				lag.record(Math.max(0, now - record.timestamp()), TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	// committed rows by emp_id, null for deleted (or patched but never there)
+	private void refresh(Map<Integer, Employee> rows) {
+		if (cache != null) {
+			rows.keySet().forEach(cache::evict);
+		}
+		if (statsCache != null) {
+			statsCache.clear();
+		}
+		rows.forEach((id, row) -> typeahead.onEmployeeEvent(
+				row != null ? new EmployeeEvent.Saved(row) : new EmployeeEvent.Deleted(id)));
+	}
+
+	private static void patch(Employee row, EmployeeChangeEvent event) {
+		if (event.ename() != null) {
+			row.setEname(event.ename());
+		}
+		if (event.email() != null) {
+			row.setEmail(event.email());
+		}
+		if (event.department() != null) {
+			row.setDepartment(event.department());
+		}
+		if (event.salary() != null) {
+			row.setSalary(event.salary());
+		}
+	}
+
+	private static void copy(Employee from, Employee to) {
+		to.setEname(from.getEname());
+		to.setEmail(from.getEmail());
+		to.setDepartment(from.getDepartment());
+		to.setSalary(from.getSalary());
+	}
+}
@@ -0,0 +1,166 @@
+package com.springapp.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.CommitFailedException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-threaded consumer of employee change events: each poll's batch is
+ * handed to the EmployeeChangeApplier in one piece, on the polling thread.
+ * Offsets are committed only after the batch's transaction has committed, so
+ * a crash re-delivers the batch. If the database is unavailable the consumer
+ * seeks back and retries the batch after a pause.
+ *
+ * Used with app.kafka.consumer.lanes=0; otherwise KeyOrderedConsumer spreads
+ * the records over parallel lanes.
+ */
+public class EmployeeChangeConsumer implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeChangeConsumer.class);
+
+	private final Consumer<String, String> consumer;
+
+	private final EmployeeChangeApplier applier;
+
+	private final String topic;
+
+	private final Duration pollTimeout;
+
+	private final Duration retryBackoff;
+
+	private final DistributionSummary batchSizes;
+
+	private volatile boolean running;
+
+	private Thread poller;
+
+	public EmployeeChangeConsumer(Consumer<String, String> consumer, EmployeeChangeApplier applier,
+			MeterRegistry meters, String topic, Duration pollTimeout, Duration retryBackoff) {
+		this.consumer = consumer;
+		this.applier = applier;
+		this.topic = topic;
+		this.pollTimeout = pollTimeout;
+		this.retryBackoff = retryBackoff;
+		this.batchSizes = DistributionSummary.builder("employees.consumer.batch.size")
+				.description("Records per poll")
+				.register(meters);
+	}
+
+	public void subscribe() {
+		consumer.subscribe(List.of(topic));
+	}
+
+	// polls once and applies the batch; returns the number of records whose offsets were committed
+	public int pollOnce() {
+		ConsumerRecords<String, String> batch = consumer.poll(pollTimeout);
+		if (batch.isEmpty()) {
+			return 0;
+		}
+		batchSizes.record(batch.count());
+		List<ConsumerRecord<String, String>> records = new ArrayList<>(batch.count());
+		batch.forEach(records::add);
+		try {
+			applier.handle(records);
+		} catch (CannotCreateTransactionException | DataAccessResourceFailureException
+				| TransientDataAccessException ex) {
+			log.warn("Database unavailable, retrying {} records in {}: {}", batch.count(), retryBackoff, ex.toString());
+			rewind(batch);
+			pause();
+			return 0;
+		}
+
+		try {
+			consumer.commitSync(nextOffsets(batch));
+		} catch (CommitFailedException ex) {
+			log.warn("Offsets not committed after a rebalance, {} records will be delivered again", batch.count());
+			return 0;
+		}
+		return batch.count();
+	}
+
+	private static Map<TopicPartition, OffsetAndMetadata> nextOffsets(ConsumerRecords<String, String> batch) {
+		Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+		for (TopicPartition partition : batch.partitions()) {
+			List<ConsumerRecord<String, String>> records = batch.records(partition);
+			offsets.put(partition, new OffsetAndMetadata(records.get(records.size() - 1).offset() + 1));
+		}
+		return offsets;
+	}
+
+	private void rewind(ConsumerRecords<String, String> batch) {
+		for (TopicPartition partition : batch.partitions()) {
+			consumer.seek(partition, batch.records(partition).get(0).offset());
+		}
+	}
+
+	private void pause() {
+		try {
+			Thread.sleep(retryBackoff.toMillis());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		poller = new Thread(this::run, "employee-change-consumer");
+		poller.start();
+	}
+
+	private void run() {
+		try {
+			subscribe();
+			while (running) {
+				try {
+					pollOnce();
+				} catch (WakeupException ex) {
+					throw ex;
+				} catch (RuntimeException ex) {
+					log.error("Change consumer poll failed, retrying in {}", retryBackoff, ex);
+					pause();
+				}
+			}
+		} catch (WakeupException ex) {
+			// stop() called
+		} finally {
+			consumer.close();
+		}
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		consumer.wakeup();
+		try {
+			poller.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+}
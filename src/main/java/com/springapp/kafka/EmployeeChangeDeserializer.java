@@ -0,0 +1,26 @@
+package com.springapp.kafka;
+
+import java.nio.ByteBuffer;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.springapp.dto.EmployeeChangeEvent;
+
+/**
+ * Kafka deserializer for the EmployeeChangeCodec binary format. Reads the
+ * record straight out of the fetched buffer; only the strings themselves are
+ * allocated.
+ */
+public class EmployeeChangeDeserializer implements Deserializer<EmployeeChangeEvent> {
+
+	@Override
+	public EmployeeChangeEvent deserialize(String topic, byte[] data) {
+		return data != null ? EmployeeChangeCodec.decode(ByteBuffer.wrap(data)) : null;
+	}
+
+	@Override
+	public EmployeeChangeEvent deserialize(String topic, Headers headers, ByteBuffer data) {
+		return data != null ? EmployeeChangeCodec.decode(data.duplicate()) : null;
+	}
+}
@@ -0,0 +1,17 @@
+package com.springapp.kafka;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.springapp.dto.EmployeeChangeEvent;
+
+/**
+ * Kafka serializer writing EmployeeChangeEvents in the EmployeeChangeCodec
+ * binary format; null stays null (a tombstone).
+ */
+public class EmployeeChangeSerializer implements Serializer<EmployeeChangeEvent> {
+
+	@Override
+	public byte[] serialize(String topic, EmployeeChangeEvent event) {
+		return event != null ? EmployeeChangeCodec.encode(event) : null;
+	}
+}
@@ -0,0 +1,133 @@
+package com.springapp.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.dto.EmployeeChangeEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Shared, thread-safe front for the employee event producer (see
+ * KafkaProducerConfig for batching, compression and idempotence). Events are
+ * keyed by emp_id, so all events of one employee land on one partition in
+ * send order. At most maxInFlight sends may wait for an acknowledgement; a
+ * caller beyond that blocks for up to maxBlock and then gets a
+ * PublishBackpressureException, instead of the records piling up in the
+ * producer's buffer.
+ */
+public class EmployeeEventPublisher {
+
+	public static final String TYPE_HEADER = "event-type";
+
+	private final Producer<String, String> producer;
+
+	private final ObjectMapper mapper;
+
+	private final String topic;
+
+	private final int maxInFlight;
+
+	private final Semaphore inFlight;
+
+	private final long maxBlockNanos;
+
+	private final Counter acked;
+
+	private final Counter failed;
+
+	private final Counter rejected;
+
+	private final Timer ackLatency;
+
+	public EmployeeEventPublisher(Producer<String, String> producer, ObjectMapper mapper, MeterRegistry meters,
+			String topic, int maxInFlight, Duration maxBlock) {
+		this.producer = producer;
+		this.mapper = mapper;
+		this.topic = topic;
+		this.maxInFlight = maxInFlight;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.maxBlockNanos = maxBlock.toNanos();
+		this.acked = Counter.builder("employees.events.sent")
+				.description("Employee events acknowledged by Kafka")
+				.register(meters);
+		this.failed = Counter.builder("employees.events.failed")
+				.description("Employee event sends that Kafka did not acknowledge")
+				.register(meters);
+		this.rejected = Counter.builder("employees.events.rejected")
+				.description("Employee event sends refused because too many were in flight")
+				.register(meters);
+		this.ackLatency = Timer.builder("employees.events.ack")
+				.description("Time from send to Kafka acknowledgement")
+				.publishPercentileHistogram()
+				.register(meters);
+		Gauge.builder("employees.events.in.flight", this, EmployeeEventPublisher::inFlight)
+				.description("Employee event sends waiting for an acknowledgement")
+				.register(meters);
+	}
+
+	public CompletableFuture<RecordMetadata> publish(EmployeeChangeEvent event) {
+		String payload;
+		try {
+			payload = mapper.writeValueAsString(event);
+		} catch (JsonProcessingException ex) {
+			return CompletableFuture.failedFuture(ex);
+		}
+		ProducerRecord<String, String> record = new ProducerRecord<>(topic, String.valueOf(event.empid()), payload);
+		record.headers().add(TYPE_HEADER, event.type().name().getBytes(StandardCharsets.UTF_8));
+		return send(record);
+	}
+
+	// completes when Kafka acknowledges the record; throws PublishBackpressureException when saturated
+	public CompletableFuture<RecordMetadata> send(ProducerRecord<String, String> record) {
+		acquire();
+		CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+		long start = System.nanoTime();
+		try {
+			producer.send(record, (metadata, ex) -> {
+				inFlight.release();
+				if (ex == null) {
+					acked.increment();
+					ackLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+					result.complete(metadata);
+				} else {
+					failed.increment();
+					result.completeExceptionally(ex);
+				}
+			});
+		} catch (RuntimeException ex) {
+			inFlight.release(); // the callback does not run for a send that throws
+			failed.increment();
+			result.completeExceptionally(ex);
+		}
+		return result;
+	}
+
+	public int inFlight() {
+		return maxInFlight - inFlight.availablePermits();
+	}
+
+	private void acquire() {
+		try {
+			if (inFlight.tryAcquire(maxBlockNanos, TimeUnit.NANOSECONDS)) {
+				return;
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		rejected.increment();
+		throw new PublishBackpressureException(inFlight(), TimeUnit.NANOSECONDS.toMillis(maxBlockNanos));
+	}
+}
@@ -0,0 +1,139 @@
+package com.springapp.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springapp.jpa.repository.EmployeeOutboxRepository;
+import com.springapp.model.EmployeeOutbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes employee_outbox rows to Kafka through EmployeeEventPublisher,
+ * oldest first, in batches of batchSize. A row is deleted
+ * only after its send was acknowledged; at the first failed or timed-out send
+ * the rest of the batch stays in the outbox and is sent again on the next run.
+ * Delivery is therefore at-least-once and in outbox order per key. The
+ * outbox-id header identifies a row, but EmployeeChangeApplier does not
+ * deduplicate by it: a re-sent event is applied again, see there.
+ */
+public class EmployeeOutboxRelay {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeOutboxRelay.class);
+
+	public static final String TYPE_HEADER = EmployeeEventPublisher.TYPE_HEADER;
+
+	public static final String OUTBOX_ID_HEADER = "outbox-id";
+
+	private final EmployeeOutboxRepository outbox;
+
+	private final EmployeeEventPublisher publisher;
+
+	private final TransactionTemplate tx;
+
+	private final String topic;
+
+	private final int batchSize;
+
+	private final long sendTimeoutMillis;
+
+	private final Counter published;
+
+	private final Counter failed;
+
+	public EmployeeOutboxRelay(EmployeeOutboxRepository outbox, EmployeeEventPublisher publisher,
+			PlatformTransactionManager txManager, MeterRegistry meters,
+			String topic, int batchSize, Duration sendTimeout) {
+		this.outbox = outbox;
+		this.publisher = publisher;
+		this.tx = new TransactionTemplate(txManager);
+		this.topic = topic;
+		this.batchSize = batchSize;
+		this.sendTimeoutMillis = sendTimeout.toMillis();
+		this.published = Counter.builder("employees.outbox.published")
+				.description("Outbox events acknowledged by Kafka")
+				.register(meters);
+		this.failed = Counter.builder("employees.outbox.failed")
+				.description("Outbox sends that failed or timed out and will be retried")
+				.register(meters);
+	}
+
+	// drains until the outbox is empty or a send fails
+	@Scheduled(fixedDelayString = "${app.outbox.relay.interval:500ms}")
+	public void relay() {
+		int sent;
+		do {
+			sent = relayBatch();
+		} while (sent == batchSize);
+	}
+
+	// sends one batch; returns how many rows were acknowledged and deleted
+	public int relayBatch() {
+		List<EmployeeOutbox> rows = outbox.findAllByOrderByIdAsc(Limit.of(batchSize));
+		if (rows.isEmpty()) {
+			return 0;
+		}
+
+		List<Future<RecordMetadata>> sends = new ArrayList<>(rows.size());
+		for (EmployeeOutbox row : rows) {
+			try {
+				sends.add(publisher.send(record(row)));
+			} catch (PublishBackpressureException ex) {
+				log.warn("Outbox send of event {} refused, retrying from there next run: {}", row.getId(), ex.getMessage());
+				break;
+			}
+		}
+
+		int acked = awaitAcks(rows, sends);
+		if (acked < rows.size()) {
+			failed.increment(rows.size() - acked);
+		}
+		if (acked > 0) {
+			List<Long> ids = rows.subList(0, acked).stream().map(EmployeeOutbox::getId).toList();
+			tx.executeWithoutResult(status -> outbox.deleteAllByIdInBatch(ids));
+			published.increment(acked);
+		}
+		return acked;
+	}
+
+	// length of the acknowledged prefix of sends
+	private int awaitAcks(List<EmployeeOutbox> rows, List<Future<RecordMetadata>> sends) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+		for (int i = 0; i < sends.size(); i++) {
+			try {
+				sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (ExecutionException | TimeoutException ex) {
+				log.warn("Outbox event {} not acknowledged, retrying from there next run: {}",
+						rows.get(i).getId(), ex.toString());
+				return i;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return i;
+			}
+		}
+		return sends.size();
+	}
+
+	private ProducerRecord<String, String> record(EmployeeOutbox row) {
+		ProducerRecord<String, String> record = new ProducerRecord<>(topic, String.valueOf(row.getEmpid()), row.getPayload());
+		record.headers().add(TYPE_HEADER, row.getType().getBytes(StandardCharsets.UTF_8));
+		record.headers().add(OUTBOX_ID_HEADER, String.valueOf(row.getId()).getBytes(StandardCharsets.UTF_8));
+		return record;
+	}
+}
@@ -0,0 +1,451 @@
+package com.springapp.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.consumer.CommitFailedException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs a Kafka consumer's records on a fixed set of lanes instead of the
+ * polling thread. A record goes to lane hash(key) % lanes, so records with the
+ * same key (emp_id for employee events) are handled one after another in
+ * offset order, while different keys of the same partition run in parallel.
+ * Each lane hands the handler up to laneBatchSize queued records at a time; a
+ * handler that throws gets the same records again after retryBackoff, so it
+ * has to skip records it can never process itself.
+ *
+ * The offset committed for a partition is its lowest offset not handled yet,
+ * so a crash only re-delivers records, some of them already handled. A lane
+ * holding laneCapacity records pauses the partitions feeding it until it is
+ * down to half; polling goes on meanwhile, so the consumer keeps its place in
+ * the group.
+ *
+ * A revoked partition gets drainTimeout to finish what the lanes hold of it.
+ * After that its remaining records are dropped uncommitted, and the revocation
+ * waits for any handler call still running on its records before committing,
+ * so nothing is written for a partition once the next owner may be replaying
+ * it. That wait is not bounded here, so the handler has to bound its own calls.
+ */
+public class KeyOrderedConsumer<K, V> implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(KeyOrderedConsumer.class);
+
+	@FunctionalInterface
+	public interface Handler<K, V> {
+
+		void handle(List<ConsumerRecord<K, V>> records);
+	}
+
+	public record Options(int lanes, int laneCapacity, int laneBatchSize, Duration pollTimeout,
+			Duration retryBackoff, Duration commitInterval, Duration drainTimeout) {
+	}
+
+	private final Consumer<K, V> consumer;
+
+	private final Handler<K, V> handler;
+
+	private final String topic;
+
+	private final Options options;
+
+	private final ThreadFactory threadFactory;
+
+	private final List<Lane> lanes = new ArrayList<>();
+
+	private final List<Thread> workers = new ArrayList<>();
+
+	// polling thread only
+	private final Map<TopicPartition, PartitionOffsets> offsets = new HashMap<>();
+
+	private final Map<TopicPartition, Long> committed = new HashMap<>();
+
+	private long lastCommit = System.nanoTime();
+
+	private volatile int pausedPartitions;
+
+	private final Counter retries;
+
+	private volatile boolean running;
+
+	private Thread poller;
+
+	public KeyOrderedConsumer(Consumer<K, V> consumer, Handler<K, V> handler, MeterRegistry meters, String name,
+			String topic, Options options, ThreadFactory threadFactory) {
+		this.consumer = consumer;
+		this.handler = handler;
+		this.topic = topic;
+		this.options = options;
+		this.threadFactory = threadFactory;
+		for (int i = 0; i < options.lanes(); i++) {
+			lanes.add(new Lane());
+		}
+		Gauge.builder("kafka.consumer.lane.records", this, KeyOrderedConsumer::queued)
+				.description("Records dispatched to lanes and not handled yet")
+				.tag("consumer", name)
+				.register(meters);
+		Gauge.builder("kafka.consumer.paused.partitions", this, c -> c.pausedPartitions)
+				.description("Partitions paused because the lanes they feed are full")
+				.tag("consumer", name)
+				.register(meters);
+		this.retries = Counter.builder("kafka.consumer.retries")
+				.description("Lane batches handed to the handler again after it failed")
+				.tag("consumer", name)
+				.register(meters);
+	}
+
+	public void subscribe() {
+		consumer.subscribe(List.of(topic), new Rebalance());
+	}
+
+	// polls once and dispatches the records to the lanes; returns the number of records dispatched
+	public int pollOnce() {
+		ConsumerRecords<K, V> batch = consumer.poll(options.pollTimeout());
+		for (ConsumerRecord<K, V> record : batch) {
+			TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+			PartitionOffsets partitionOffsets = offsets.computeIfAbsent(partition, p -> new PartitionOffsets());
+			partitionOffsets.dispatched(record.offset());
+			laneFor(record).add(new Item<>(record, partition, partitionOffsets));
+		}
+		pauseOrResume();
+		if (System.nanoTime() - lastCommit >= options.commitInterval().toNanos()) {
+			commit();
+		}
+		return batch.count();
+	}
+
+	// commits the lowest unhandled offset of every partition that moved since the last commit
+	public void commit() {
+		lastCommit = System.nanoTime();
+		Map<TopicPartition, OffsetAndMetadata> due = new HashMap<>();
+		offsets.forEach((partition, partitionOffsets) -> {
+			long safe = partitionOffsets.safeOffset();
+			if (safe >= 0 && !Long.valueOf(safe).equals(committed.get(partition))) {
+				due.put(partition, new OffsetAndMetadata(safe));
+			}
+		});
+		if (due.isEmpty()) {
+			return;
+		}
+		try {
+			consumer.commitSync(due);
+			due.forEach((partition, offset) -> committed.put(partition, offset.offset()));
+		} catch (CommitFailedException ex) {
+			log.warn("Offsets not committed after a rebalance, handled records may be delivered again");
+		}
+	}
+
+	public int queued() {
+		return lanes.stream().mapToInt(lane -> lane.depth.get()).sum();
+	}
+
+	private Lane laneFor(ConsumerRecord<K, V> record) {
+		int hash = record.key() != null ? record.key().hashCode() : record.partition();
+		return lanes.get(Math.floorMod(hash, lanes.size()));
+	}
+
+	private void pauseOrResume() {
+		Set<TopicPartition> full = new HashSet<>();
+		Set<TopicPartition> busy = new HashSet<>();
+		for (Lane lane : lanes) {
+			int depth = lane.depth.get();
+			if (depth >= options.laneCapacity()) {
+				full.addAll(lane.partitions.keySet());
+			}
+			if (depth > options.laneCapacity() / 2) {
+				busy.addAll(lane.partitions.keySet());
+			}
+		}
+		Set<TopicPartition> paused = consumer.paused();
+		Set<TopicPartition> resume = new HashSet<>(paused);
+		resume.removeAll(busy);
+		full.removeAll(paused);
+		full.retainAll(consumer.assignment());
+		if (!full.isEmpty()) {
+			log.debug("Lanes full, pausing {}", full);
+			consumer.pause(full);
+		}
+		if (!resume.isEmpty()) {
+			consumer.resume(resume);
+		}
+		pausedPartitions = consumer.paused().size();
+	}
+
+	// waits until the lanes hold nothing of the given partitions, or the drain timeout has passed
+	private void drain(Collection<TopicPartition> partitions) {
+		long deadline = System.nanoTime() + options.drainTimeout().toNanos();
+		while (System.nanoTime() < deadline
+				&& lanes.stream().anyMatch(lane -> partitions.stream().anyMatch(lane.partitions::containsKey))) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	// stops the lanes from starting on the partitions' records, then waits out the handler calls already running
+	private void release(Collection<TopicPartition> partitions) {
+		for (TopicPartition partition : partitions) {
+			PartitionOffsets partitionOffsets = offsets.get(partition);
+			if (partitionOffsets != null) {
+				partitionOffsets.revoked = true;
+			}
+		}
+		while (lanes.stream().anyMatch(lane -> partitions.stream().anyMatch(lane.inFlight::contains))) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private final class Rebalance implements ConsumerRebalanceListener {
+
+		// let the lanes finish what they hold of the revoked partitions, drop the rest, and commit
+		@Override
+		public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+			drain(partitions);
+			release(partitions);
+			commit();
+			forget(partitions);
+		}
+
+		@Override
+		public void onPartitionsLost(Collection<TopicPartition> partitions) {
+			release(partitions);
+			forget(partitions);
+		}
+
+		@Override
+		public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+		}
+
+		private void forget(Collection<TopicPartition> partitions) {
+			for (TopicPartition partition : partitions) {
+				PartitionOffsets partitionOffsets = offsets.remove(partition);
+				if (partitionOffsets != null) {
+					partitionOffsets.revoked = true;
+				}
+				committed.remove(partition);
+			}
+		}
+	}
+
+	private static final class PartitionOffsets {
+
+		// offsets dispatched and not handled yet; added by the polling thread, removed by the lanes
+		private final NavigableSet<Long> pending = new ConcurrentSkipListSet<>();
+
+		private long next = -1;
+
+		private volatile boolean revoked;
+
+		void dispatched(long offset) {
+			pending.add(offset);
+			next = offset + 1;
+		}
+
+		// only the polling thread adds, so an empty set here really means everything up to next is handled
+		long safeOffset() {
+			Long lowest = pending.ceiling(Long.MIN_VALUE);
+			return lowest != null ? lowest : next;
+		}
+	}
+
+	private record Item<K, V>(ConsumerRecord<K, V> record, TopicPartition partition, PartitionOffsets offsets) {
+	}
+
+	private final class Lane implements Runnable {
+
+		private final BlockingQueue<Item<K, V>> queue = new LinkedBlockingQueue<>();
+
+		// records queued or being handled, in total and per partition
+		private final AtomicInteger depth = new AtomicInteger();
+
+		private final Map<TopicPartition, Integer> partitions = new ConcurrentHashMap<>();
+
+		// partitions of the records the handler is running on right now
+		private volatile Set<TopicPartition> inFlight = Set.of();
+
+		void add(Item<K, V> item) {
+			depth.incrementAndGet();
+			partitions.merge(item.partition(), 1, Integer::sum);
+			queue.add(item);
+		}
+
+		@Override
+		public void run() {
+			List<Item<K, V>> chunk = new ArrayList<>(options.laneBatchSize());
+			while (true) {
+				Item<K, V> first;
+				try {
+					first = queue.poll(100, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException ex) {
+					return;
+				}
+				if (first == null) {
+					if (!running) {
+						return;
+					}
+					continue;
+				}
+				chunk.add(first);
+				queue.drainTo(chunk, options.laneBatchSize() - 1);
+				try {
+					handle(chunk);
+				} finally {
+					inFlight = Set.of();
+				}
+				for (Item<K, V> item : chunk) {
+					partitions.computeIfPresent(item.partition(), (p, n) -> n == 1 ? null : n - 1);
+				}
+				depth.addAndGet(-chunk.size());
+				chunk.clear();
+			}
+		}
+
+		// records of revoked partitions, and all of them when stopped before the handler succeeded, stay uncommitted
+		private void handle(List<Item<K, V>> chunk) {
+			while (true) {
+				// published before reading revoked, so a revocation either sees it and waits or is seen here
+				inFlight = partitionsOf(chunk);
+				List<Item<K, V>> live = chunk.stream().filter(item -> !item.offsets().revoked).toList();
+				inFlight = partitionsOf(live);
+				if (live.isEmpty()) {
+					return;
+				}
+				List<ConsumerRecord<K, V>> records = live.stream().map(Item::record).toList();
+				try {
+					handler.handle(records);
+					live.forEach(item -> item.offsets().pending.remove(item.record().offset()));
+					return;
+				} catch (RuntimeException ex) {
+					inFlight = Set.of();
+					if (!running) {
+						return;
+					}
+					retries.increment();
+					log.warn("Handling {} records failed, retrying in {}: {}", records.size(),
+							options.retryBackoff(), ex.toString());
+					try {
+						Thread.sleep(options.retryBackoff().toMillis());
+					} catch (InterruptedException ie) {
+						return;
+					}
+				}
+			}
+		}
+
+		private Set<TopicPartition> partitionsOf(List<Item<K, V>> items) {
+			return items.stream().map(Item::partition).collect(Collectors.toSet());
+		}
+	}
+
+	void startLanes() {
+		running = true;
+		for (Lane lane : lanes) {
+			Thread worker = threadFactory.newThread(lane);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	void stopLanes() {
+		running = false;
+		joinWorkers();
+	}
+
+	@Override
+	public void start() {
+		startLanes();
+		poller = new Thread(this::run, "kafka-" + topic + "-poller");
+		poller.start();
+	}
+
+	private void run() {
+		try {
+			subscribe();
+			while (running) {
+				try {
+					pollOnce();
+				} catch (WakeupException ex) {
+					throw ex;
+				} catch (RuntimeException ex) {
+					log.error("Poll of {} failed, retrying in {}", topic, options.retryBackoff(), ex);
+					Thread.sleep(options.retryBackoff().toMillis());
+				}
+			}
+		} catch (WakeupException | InterruptedException ex) {
+			// stop() called
+		} finally {
+			// the lanes finish what they hold (they stop once their queue is empty), then the final commit
+			joinWorkers();
+			try {
+				commit();
+			} finally {
+				consumer.close();
+			}
+		}
+	}
+
+	void joinWorkers() {
+		long deadline = System.nanoTime() + options.drainTimeout().toNanos();
+		for (Thread worker : workers) {
+			try {
+				worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		workers.forEach(Thread::interrupt);
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		consumer.wakeup();
+		try {
+			poller.join(options.drainTimeout().toMillis() + TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+}
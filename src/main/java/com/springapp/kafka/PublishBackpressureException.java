@@ -0,0 +1,7 @@
+package com.springapp.kafka;
+
+public class PublishBackpressureException extends RuntimeException {
+	public PublishBackpressureException(int inFlight, long waitedMillis) {
+		super("Kafka publisher saturated: " + inFlight + " sends still unacknowledged after waiting " + waitedMillis + " ms");
+	}
+}
@@ -1,32 +0,0 @@
-package com.springapp.kafka;
-
-import java.time.Duration;
-import java.util.Collections;
-import java.util.Properties;
-
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
-
-public class SampleConsumer {
-	public static void main(String[] args) {
-
-		Properties props = new Properties();
-		props.put("bootstrap.servers", "localhost:9092");
-		props.put("group.id", "demo-group");
-		props.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
-		props.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
-
-		try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
-			consumer.subscribe(Collections.singletonList("demo-topic"));
-
-			System.out.println("Listening…");
-			while (true) {
-				ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(1000));
-				for (ConsumerRecord<String, String> r : records) {
-					System.out.println("Received: " + r.value());
-				}
-			}
-		}
-	}
-}
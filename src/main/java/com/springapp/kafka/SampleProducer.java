@@ -1,26 +0,0 @@
-package com.springapp.kafka;
-
-import java.util.Properties;
-
-import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.Producer;
-import org.apache.kafka.clients.producer.ProducerRecord;
-
-public class SampleProducer {
-	public static void main(String[] args) {
-
-        Properties props = new Properties();
-        props.put("bootstrap.servers", "localhost:9092");
-        props.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-
-        Producer<String, String> producer = new KafkaProducer<>(props);
-
-        for (int i = 1; i <= 5; i++) {
-            producer.send(new ProducerRecord<>("demo-topic", "Message " + i));
-        }
-
-        producer.close();
-        System.out.println("Messages sent!");
-    }
-}
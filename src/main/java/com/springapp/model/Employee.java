@@ -1,14 +1,27 @@
 package com.springapp.model;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 @Entity
 @Table(name = "employee")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employee")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,4 +42,24 @@ public class Employee {
 
 	@Column(name = "salary")
 	private int salary;
+
+	// optimistic lock; null means not yet persisted
+	@Version
+	@ColumnDefault("0")
+	@Column(name = "version", nullable = false)
+	private Long version;
+
+	// set by Hibernate on insert and update (PATCH sets it explicitly)
+	@UpdateTimestamp
+	@Column(name = "last_modified")
+	private Instant lastModified;
+
+	public Employee(Integer empid, String ename, String email, String department, int salary) {
+		this(empid, ename, email, department, salary, null, null);
+	}
+
+	// unmanaged copy with the same state, for handing one loaded row to several callers
+	public Employee copy() {
+		return new Employee(empid, ename, email, department, salary, version, lastModified);
+	}
 }
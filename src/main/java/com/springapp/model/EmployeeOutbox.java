@@ -0,0 +1,49 @@
+package com.springapp.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one pending change event; written with the change, deleted once Kafka has acknowledged it
+@Entity
+@Table(name = "employee_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeOutbox {
+
+	// the relay publishes in id order, so ids must follow the order changes to a row are made across
+	// every app instance: one database sequence value per row, no per-instance blocks of pre-allocated ids.
+	// A row's change holds the row lock until commit, so the next change to it always draws a higher id.
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_outbox_seq")
+	@SequenceGenerator(name = "employee_outbox_seq", sequenceName = "employee_outbox_seq", allocationSize = 1)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "emp_id", nullable = false)
+	private Integer empid;
+
+	@Column(name = "event_type", nullable = false, length = 16)
+	private String type;
+
+	// EmployeeChangeEvent as JSON
+	@Column(name = "payload", nullable = false, length = 4000)
+	private String payload;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	public EmployeeOutbox(Integer empid, String type, String payload) {
+		this(null, empid, type, payload, Instant.now());
+	}
+}
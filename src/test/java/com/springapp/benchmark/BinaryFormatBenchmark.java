@@ -0,0 +1,98 @@
+package com.springapp.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.springapp.model.Employee;
+
+/**
+ * Payload size and encode/decode time of a 100k-employee list as JSON, CBOR
+ * and Smile, the three formats GET /employees can now negotiate. Gzip size is
+ * shown too since JSON responses are usually compressed on the wire.
+ *
+ * Run main() from the test classpath. Knobs: bench.employees, bench.iterations.
+ */
+public class BinaryFormatBenchmark {
+
+	static final int EMPLOYEES = Integer.getInteger("bench.employees", 100_000);
+	static final int ITERATIONS = Integer.getInteger("bench.iterations", 10);
+
+	static final String[] DEPARTMENTS = { "IT", "HR", "Finance", "Marketing", "Operations", "Integration", "Sales" };
+	static final String[] FIRST = { "John", "Mary", "Robert", "Sophia", "Devyesh", "Alice", "Carlo", "Grace", "Henry" };
+	static final String[] LAST = { "Doe", "Smith", "King", "Patel", "Yadav", "Rao", "Brown", "Nguyen", "Garcia" };
+
+	public static void main(String[] args) throws IOException {
+		List<Employee> employees = employees(EMPLOYEES);
+		System.out.printf("%d employees, %d iterations%n", EMPLOYEES, ITERATIONS);
+		System.out.printf("%-6s %12s %12s %12s %12s%n", "format", "bytes", "gzip bytes", "encode ms", "decode ms");
+
+		run("json", JsonMapper.builder().findAndAddModules().build(), employees);
+		run("cbor", CBORMapper.builder().findAndAddModules().build(), employees);
+		run("smile", SmileMapper.builder().findAndAddModules().build(), employees);
+	}
+
+	static void run(String name, ObjectMapper mapper, List<Employee> employees) throws IOException {
+		TypeReference<List<Employee>> type = new TypeReference<>() {
+		};
+		byte[] encoded = mapper.writeValueAsBytes(employees);
+
+		// warm up both directions before timing
+		for (int i = 0; i < 3; i++) {
+			mapper.writeValueAsBytes(employees);
+			mapper.readValue(encoded, type);
+		}
+
+		long encodeNanos = 0;
+		long decodeNanos = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			long t0 = System.nanoTime();
+			encoded = mapper.writeValueAsBytes(employees);
+			long t1 = System.nanoTime();
+			List<Employee> decoded = mapper.readValue(encoded, type);
+			long t2 = System.nanoTime();
+			if (decoded.size() != employees.size()) {
+				throw new IllegalStateException(name + " round trip lost rows");
+			}
+			encodeNanos += t1 - t0;
+			decodeNanos += t2 - t1;
+		}
+
+		System.out.printf("%-6s %12d %12d %12.1f %12.1f%n", name, encoded.length, gzip(encoded).length,
+				encodeNanos / 1e6 / ITERATIONS, decodeNanos / 1e6 / ITERATIONS);
+	}
+
+	static List<Employee> employees(int count) {
+		Random random = new Random(42);
+		Instant now = Instant.parse("2026-01-01T00:00:00Z");
+		List<Employee> list = new ArrayList<>(count);
+		for (int i = 1; i <= count; i++) {
+			String first = FIRST[random.nextInt(FIRST.length)];
+			String last = LAST[random.nextInt(LAST.length)];
+			Employee e = new Employee(i, first + " " + last,
+					first.toLowerCase() + "." + last.toLowerCase() + i + "@example.com",
+					DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], 30_000 + random.nextInt(170_000));
+			e.setVersion((long) random.nextInt(20));
+			e.setLastModified(now.minusSeconds(random.nextInt(31_536_000)));
+			list.add(e);
+		}
+		return list;
+	}
+
+	static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+		try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(data);
+		}
+		return out.toByteArray();
+	}
+}
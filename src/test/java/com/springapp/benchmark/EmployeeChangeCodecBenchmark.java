@@ -0,0 +1,198 @@
+package com.springapp.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.Record;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.springapp.dto.EmployeeChangeEvent;
+import com.springapp.kafka.EmployeeChangeDeserializer;
+import com.springapp.kafka.EmployeeChangeSerializer;
+import com.springapp.model.Employee;
+
+/**
+ * EmployeeChangeCodec against the JSON the outbox publishes today: bytes per
+ * event and serialize/deserialize ns per event, then the same events packed
+ * into producer batches of bench.batch-size bytes per compression.type, with
+ * the batch's bytes per event and compress/decompress ns per event.
+ *
+ * Departments are drawn with a skew from DEPARTMENTS, plus one event in 50
+ * with a one-off team name, rather than from the short list the other
+ * benchmarks use, so repeated and rare values are both represented.
+ *
+ * Run main() from the test classpath. Knobs: bench.events, bench.iterations,
+ * bench.batch-size.
+ */
+public class EmployeeChangeCodecBenchmark {
+
+	static final int EVENTS = Integer.getInteger("bench.events", 200_000);
+	static final int ITERATIONS = Integer.getInteger("bench.iterations", 10);
+	static final int BATCH_SIZE = Integer.getInteger("bench.batch-size", 65536);
+
+	// most common first
+	static final String[] DEPARTMENTS = { "Engineering", "Ops", "Sales", "Customer Support", "IT", "Finance", "HR",
+			"Marketing", "Product", "Legal", "Data Platform", "Facilities", "Procurement", "Quality Assurance",
+			"Security", "Research & Development" };
+
+	static final List<CompressionType> CODECS = List.of(CompressionType.NONE, CompressionType.LZ4,
+			CompressionType.ZSTD);
+
+	public static void main(String[] args) {
+		List<EmployeeChangeEvent> events = new ArrayList<>(EVENTS);
+		Random random = new Random(42);
+		for (Employee e : BinaryFormatBenchmark.employees(EVENTS)) {
+			events.add(new EmployeeChangeEvent(EmployeeChangeEvent.Type.SAVED, e.getEmpid(), e.getEname(),
+					e.getEmail(), department(random), e.getSalary(), e.getVersion()));
+		}
+		System.out.printf("%d events, %d iterations, %d byte batches%n", EVENTS, ITERATIONS, BATCH_SIZE);
+		System.out.printf("%-7s %-5s %12s %10s %10s%n", "format", "codec", "bytes/event", "ser ns", "de ns");
+
+		ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+		run("json", events, new JsonSerde(mapper), new JsonSerde(mapper));
+		run("binary", events, new EmployeeChangeSerializer(), new EmployeeChangeDeserializer());
+	}
+
+	static String department(Random random) {
+		if (random.nextInt(50) == 0) {
+			return "Team " + random.nextInt(500);
+		}
+		double u = random.nextDouble();
+		return DEPARTMENTS[(int) (u * u * DEPARTMENTS.length)];
+	}
+
+	static void run(String name, List<EmployeeChangeEvent> events, Serializer<EmployeeChangeEvent> serializer,
+			Deserializer<EmployeeChangeEvent> deserializer) {
+		List<byte[]> encoded = new ArrayList<>(events.size());
+		for (EmployeeChangeEvent event : events) {
+			encoded.add(serializer.serialize("employee-changes", event));
+		}
+		for (int i = 0; i < encoded.size(); i++) {
+			if (!events.get(i).equals(deserializer.deserialize("employee-changes", encoded.get(i)))) {
+				throw new IllegalStateException(name + " round trip changed event " + i);
+			}
+		}
+
+		long serNanos = 0;
+		long deNanos = 0;
+		long sink = 0;
+		for (int it = 0; it < ITERATIONS + 3; it++) {
+			long t0 = System.nanoTime();
+			for (EmployeeChangeEvent event : events) {
+				sink += serializer.serialize("employee-changes", event).length;
+			}
+			long t1 = System.nanoTime();
+			for (byte[] bytes : encoded) {
+				sink += deserializer.deserialize("employee-changes", bytes).empid();
+			}
+			long t2 = System.nanoTime();
+			if (it >= 3) { // first rounds are warm-up
+				serNanos += t1 - t0;
+				deNanos += t2 - t1;
+			}
+		}
+		long bytes = encoded.stream().mapToLong(b -> b.length).sum();
+		System.out.printf("%-7s %-5s %12.1f %10.0f %10.0f%n", name, "-", (double) bytes / events.size(),
+				(double) serNanos / ITERATIONS / events.size(), (double) deNanos / ITERATIONS / events.size());
+
+		for (CompressionType codec : CODECS) {
+			batches(name, codec, encoded);
+		}
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+
+	// packs the values into batches like the producer would and times building (compressing) and reading them
+	static void batches(String name, CompressionType codec, List<byte[]> values) {
+		long buildNanos = 0;
+		long readNanos = 0;
+		long bytes = 0;
+		long sink = 0;
+		for (int it = 0; it < ITERATIONS + 3; it++) {
+			bytes = 0;
+			List<MemoryRecords> built = new ArrayList<>();
+			long t0 = System.nanoTime();
+			int i = 0;
+			while (i < values.size()) {
+				MemoryRecordsBuilder batch = MemoryRecords.builder(ByteBuffer.allocate(BATCH_SIZE), codec,
+						TimestampType.CREATE_TIME, 0L);
+				int raw = 0;
+				while (i < values.size() && raw < BATCH_SIZE) {
+					byte[] value = values.get(i++);
+					batch.append(0L, null, value);
+					raw += value.length;
+				}
+				MemoryRecords records = batch.build();
+				bytes += records.sizeInBytes();
+				built.add(records);
+			}
+			long t1 = System.nanoTime();
+			for (MemoryRecords records : built) {
+				for (RecordBatch batch : records.batches()) {
+					for (Record record : batch) {
+						sink += record.valueSize();
+					}
+				}
+			}
+			long t2 = System.nanoTime();
+			if (it >= 3) {
+				buildNanos += t1 - t0;
+				readNanos += t2 - t1;
+			}
+		}
+		System.out.printf("%-7s %-5s %12.1f %10.0f %10.0f%n", name, codec.name, (double) bytes / values.size(),
+				(double) buildNanos / ITERATIONS / values.size(), (double) readNanos / ITERATIONS / values.size());
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+
+	// the JSON the outbox stores and the relay publishes, as bytes
+	static final class JsonSerde implements Serializer<EmployeeChangeEvent>, Deserializer<EmployeeChangeEvent> {
+
+		private final ObjectMapper mapper;
+
+		JsonSerde(ObjectMapper mapper) {
+			this.mapper = mapper;
+		}
+
+		@Override
+		public void configure(Map<String, ?> configs, boolean isKey) {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public byte[] serialize(String topic, EmployeeChangeEvent event) {
+			try {
+				return mapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		public EmployeeChangeEvent deserialize(String topic, byte[] data) {
+			try {
+				return mapper.readValue(new String(data, StandardCharsets.UTF_8), EmployeeChangeEvent.class);
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+}
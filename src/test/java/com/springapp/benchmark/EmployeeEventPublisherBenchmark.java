@@ -0,0 +1,122 @@
+package com.springapp.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.springapp.dto.EmployeeChangeEvent;
+import com.springapp.kafka.EmployeeEventPublisher;
+import com.springapp.model.Employee;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Throughput of EmployeeEventPublisher against a MockProducer (no broker, so
+ * this measures serialization, keying and the in-flight bookkeeping, not the
+ * network), plus payload bytes per event and what a producer batch of
+ * bench.batch-size bytes would shrink to with each compression.type.
+ *
+ * Run main() from the test classpath. Knobs: bench.events, bench.threads,
+ * bench.max-in-flight, bench.batch-size.
+ */
+public class EmployeeEventPublisherBenchmark {
+
+	static final int EVENTS = Integer.getInteger("bench.events", 500_000);
+	static final int THREADS = Integer.getInteger("bench.threads", 4);
+	static final int MAX_IN_FLIGHT = Integer.getInteger("bench.max-in-flight", 1000);
+	static final int BATCH_SIZE = Integer.getInteger("bench.batch-size", 65536);
+
+	public static void main(String[] args) throws Exception {
+		ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+		List<EmployeeChangeEvent> events = new ArrayList<>(EVENTS);
+		for (Employee e : BinaryFormatBenchmark.employees(EVENTS)) {
+			events.add(new EmployeeChangeEvent(EmployeeChangeEvent.Type.SAVED, e.getEmpid(), e.getEname(),
+					e.getEmail(), e.getDepartment(), e.getSalary(), e.getVersion()));
+		}
+		System.out.printf("%d events, %d threads, max in flight %d%n", EVENTS, THREADS, MAX_IN_FLIGHT);
+
+		// warm up, then time a fresh producer so history() starts empty
+		publish(mapper, events.subList(0, Math.min(50_000, EVENTS)));
+		long t0 = System.nanoTime();
+		MockProducer<String, String> producer = publish(mapper, events);
+		long nanos = System.nanoTime() - t0;
+
+		List<ProducerRecord<String, String>> sent = producer.history();
+		long bytes = 0;
+		for (ProducerRecord<String, String> r : sent) {
+			bytes += r.key().length() + r.value().getBytes(StandardCharsets.UTF_8).length;
+		}
+		System.out.printf("%.0f events/s, %.1f key+value bytes/event%n", sent.size() / (nanos / 1e9),
+				(double) bytes / sent.size());
+
+		System.out.printf("%-6s %16s %10s%n", "codec", "batch bytes/event", "ratio");
+		double plain = batchBytesPerEvent(sent, CompressionType.NONE);
+		for (CompressionType codec : List.of(CompressionType.NONE, CompressionType.GZIP, CompressionType.SNAPPY,
+				CompressionType.LZ4, CompressionType.ZSTD)) {
+			double perEvent = batchBytesPerEvent(sent, codec);
+			System.out.printf("%-6s %16.1f %10.2f%n", codec.name, perEvent, plain / perEvent);
+		}
+	}
+
+	static MockProducer<String, String> publish(ObjectMapper mapper, List<EmployeeChangeEvent> events)
+			throws Exception {
+		MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+		EmployeeEventPublisher publisher = new EmployeeEventPublisher(producer, mapper, new SimpleMeterRegistry(),
+				"employee-changes", MAX_IN_FLIGHT, Duration.ofSeconds(5));
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>();
+		int slice = (events.size() + THREADS - 1) / THREADS;
+		for (int t = 0; t < THREADS; t++) {
+			List<EmployeeChangeEvent> part = events.subList(Math.min(events.size(), t * slice),
+					Math.min(events.size(), (t + 1) * slice));
+			workers.add(pool.submit(() -> {
+				CompletableFuture<?> last = CompletableFuture.completedFuture(null);
+				for (EmployeeChangeEvent event : part) {
+					last = publisher.publish(event);
+				}
+				return last.join();
+			}));
+		}
+		for (Future<?> worker : workers) {
+			worker.get();
+		}
+		pool.shutdown();
+		return producer;
+	}
+
+	// fills batches the way the producer would (up to BATCH_SIZE uncompressed) and averages the encoded size
+	static double batchBytesPerEvent(List<ProducerRecord<String, String>> records, CompressionType codec) {
+		long total = 0;
+		int i = 0;
+		while (i < records.size()) {
+			MemoryRecordsBuilder batch = MemoryRecords.builder(ByteBuffer.allocate(BATCH_SIZE), codec,
+					TimestampType.CREATE_TIME, 0L);
+			int raw = 0;
+			while (i < records.size() && raw < BATCH_SIZE) {
+				ProducerRecord<String, String> r = records.get(i++);
+				byte[] key = r.key().getBytes(StandardCharsets.UTF_8);
+				byte[] value = r.value().getBytes(StandardCharsets.UTF_8);
+				batch.append(0L, key, value);
+				raw += key.length + value.length;
+			}
+			total += batch.build().sizeInBytes();
+		}
+		return (double) total / records.size();
+	}
+}
@@ -0,0 +1,172 @@
+package com.springapp.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.service.EmployeeBatchService;
+import com.springapp.model.Employee;
+
+/**
+ * Platform vs virtual request threads for GET /employees/{id} against a slow
+ * database. Every SQL statement is delayed by bench.dbDelayMs (default 50) while
+ * the JDBC connection is held, which is what a slow SQL Server looks like to
+ * a request thread. The Spring cache and Hibernate's second-level and query
+ * caches are off, so every request reaches the database.
+ * More clients than bench.tomcatThreads are used, so the platform run is
+ * limited by its thread pool; the virtual run ignores that limit.
+ *
+ * Run from the test classpath, e.g. with the java21 profile:
+ *   mvn -Pjava21 test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=com.springapp.benchmark.VirtualThreadBenchmark
+ * On Java 17 only the platform-thread run is executed. Knobs: bench.dbDelayMs,
+ * bench.clients, bench.tomcatThreads, bench.warmupSeconds, bench.measureSeconds.
+ */
+public class VirtualThreadBenchmark {
+
+	static final int DB_DELAY_MS = Integer.getInteger("bench.dbDelayMs", 50);
+	static final int CLIENTS = Integer.getInteger("bench.clients", 200);
+	static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcatThreads", 50);
+	static final int WARMUP_SECONDS = Integer.getInteger("bench.warmupSeconds", 3);
+	static final int MEASURE_SECONDS = Integer.getInteger("bench.measureSeconds", 10);
+	static final int EMPLOYEES = 1000;
+
+	// Hibernate instantiates this by class name; it stalls every statement like a slow server would
+	public static class SlowStatements implements StatementInspector {
+		@Override
+		public String inspect(String sql) {
+			try {
+				Thread.sleep(DB_DELAY_MS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return sql;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		System.out.printf("GET /employees/{id}, db delay %d ms, %d clients, %d tomcat threads, %d s measured%n",
+				DB_DELAY_MS, CLIENTS, TOMCAT_THREADS, MEASURE_SECONDS);
+
+		run(false);
+		if (Runtime.version().feature() >= 21) {
+			run(true);
+		} else {
+			System.out.println("virtual: skipped, requires Java 21 (build with -Pjava21)");
+		}
+	}
+
+	static void run(boolean virtual) throws Exception {
+		try (ConfigurableApplicationContext ctx = start(virtual)) {
+			seed(ctx.getBean(EmployeeBatchService.class));
+			int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+
+			load(port, WARMUP_SECONDS);
+			long[] latencies = load(port, MEASURE_SECONDS);
+
+			Arrays.sort(latencies);
+			System.out.printf("%-8s requests/s %8.0f   p50 %6.1f ms   p99 %6.1f ms%n",
+					virtual ? "virtual" : "platform",
+					latencies.length / (double) MEASURE_SECONDS,
+					percentile(latencies, 0.50) / 1e6,
+					percentile(latencies, 0.99) / 1e6);
+		}
+	}
+
+	static ConfigurableApplicationContext start(boolean virtual) {
+		return new SpringApplicationBuilder(SpringbootDemoApplication.class).run(
+				"--server.port=0",
+				"--spring.threads.virtual.enabled=" + virtual,
+				"--server.tomcat.threads.max=" + TOMCAT_THREADS,
+				"--spring.datasource.url=jdbc:h2:mem:bench" + virtual + ";DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				// pool sized so request threads, not connections, are the limit being compared
+				"--spring.datasource.hikari.maximum-pool-size=" + CLIENTS,
+				"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+				"--spring.jpa.hibernate.ddl-auto=create",
+				"--spring.jpa.show-sql=false",
+				"--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+						+ SlowStatements.class.getName(),
+				"--spring.cache.type=none",
+				"--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+				"--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+				"--logging.level.root=WARN",
+				"--logging.level.org.springframework.web=WARN",
+				"--logging.level.org.springdoc=WARN");
+	}
+
+	static void seed(EmployeeBatchService batch) {
+		List<Employee> rows = new ArrayList<>(EMPLOYEES);
+		for (int i = 1; i <= EMPLOYEES; i++) {
+			rows.add(new Employee(i, "emp" + i, "emp" + i + "@example.com", "D" + (i % 10), 1000 + i));
+		}
+		batch.insertAll(rows, EMPLOYEES);
+	}
+
+	// CLIENTS closed-loop callers for the given time; returns every request latency in ns
+	static long[] load(int port, int seconds) throws Exception {
+		ExecutorService httpPool = Executors.newFixedThreadPool(32);
+		HttpClient http = HttpClient.newBuilder().executor(httpPool).build();
+		AtomicBoolean running = new AtomicBoolean(true);
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+		List<Future<long[]>> futures = new ArrayList<>();
+
+		for (int c = 0; c < CLIENTS; c++) {
+			futures.add(clients.submit(() -> {
+				long[] buf = new long[1024];
+				int n = 0;
+				while (running.get()) {
+					int id = ThreadLocalRandom.current().nextInt(1, EMPLOYEES + 1);
+					HttpRequest req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/employees/" + id))
+							.build();
+					long t0 = System.nanoTime();
+					HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+					long took = System.nanoTime() - t0;
+					if (res.statusCode() == 200) {
+						if (n == buf.length) {
+							buf = Arrays.copyOf(buf, n * 2);
+						}
+						buf[n++] = took;
+					}
+				}
+				return Arrays.copyOf(buf, n);
+			}));
+		}
+
+		TimeUnit.SECONDS.sleep(seconds);
+		running.set(false);
+		List<long[]> perClient = new ArrayList<>();
+		for (Future<long[]> f : futures) {
+			perClient.add(f.get());
+		}
+		clients.shutdown();
+		httpPool.shutdown();
+
+		return perClient.stream().flatMapToLong(Arrays::stream).toArray();
+	}
+
+	static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+	}
+}
@@ -0,0 +1,114 @@
+package com.springapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.service.EmployeeService;
+import com.springapp.model.Employee;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// two separate H2 databases, so which one answered shows where a query was routed
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:rwprimary;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.enabled=true",
+		"app.datasource.replica.url=jdbc:h2:mem:rwreplica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+		"spring.cache.type=none",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@ActiveProfiles("test")
+@DirtiesContext
+class ReadReplicaRoutingTest {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private HikariDataSource primary;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private HikariDataSource replica;
+
+	@Autowired
+	private ReplicaFallbackDataSource replicaFallback;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Test
+	void readsGoToReplicaWritesToPrimaryAndReadsFallBackWhenReplicaIsDown() {
+		service.saveEmployee(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+		new JdbcTemplate(replica).update(
+				"INSERT INTO employee (emp_id, e_name, email, department, salary) VALUES (2, 'Replica Only', 'r@example.com', 'IT', 1)");
+
+		assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM employee", Integer.class)).isEqualTo(1);
+		assertThat(service.findByDepartment("IT")).extracting(Employee::getEname).containsExactly("Replica Only");
+		// by-id lookups fill the employees cache, so they read the primary
+		assertThat(service.findById(1)).map(Employee::getEname).contains("John Doe");
+		assertThat(service.findById(2)).isEmpty();
+
+		replica.close();
+
+		assertThat(service.findByDepartment("IT")).extracting(Employee::getEname).containsExactly("John Doe");
+		assertThat(replicaFallback.isReplicaUsable()).isFalse();
+	}
+
+	@Test
+	void fullReplicaPoolIsNotTreatedAsReplicaDown() throws Exception {
+		DataSource replicaPool = mock(DataSource.class);
+		DataSource primaryPool = mock(DataSource.class);
+		when(replicaPool.getConnection()).thenThrow(new SQLTransientConnectionException(
+				"replica - Connection is not available, request timed out after 2000ms"));
+		ReplicaFallbackDataSource fallback = new ReplicaFallbackDataSource(replicaPool, primaryPool,
+				Duration.ofSeconds(30), "", Duration.ofSeconds(5));
+
+		assertThatThrownBy(fallback::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+		assertThat(fallback.isReplicaUsable()).isTrue();
+		verify(primaryPool, never()).getConnection();
+	}
+
+	@Test
+	void replicaReadsDoNotStoreIntoTheSecondLevelCache() {
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+		tx.setReadOnly(true);
+		Object replicaRead = tx.execute(status -> em.getProperties().get("jakarta.persistence.cache.storeMode"));
+		tx.setReadOnly(false);
+		Object primaryRead = tx.execute(status -> em.getProperties().get("jakarta.persistence.cache.storeMode"));
+
+		assertThat(replicaRead).isEqualTo(CacheStoreMode.BYPASS);
+		assertThat(primaryRead).isNotEqualTo(CacheStoreMode.BYPASS);
+	}
+
+	@Test
+	void replicaPoolWaitsNoLongerThanThePrimary() {
+		assertThat(replica.getConnectionTimeout()).isEqualTo(primary.getConnectionTimeout());
+	}
+}
@@ -0,0 +1,119 @@
+package com.springapp.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.exception.GlobalExceptionHandler;
+import com.springapp.jpa.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// one-connection pool: while a transaction holds it, lookups must get 503 quickly instead of queuing
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1",
+		"spring.datasource.hikari.maximum-pool-size=1",
+		"spring.datasource.hikari.connection-timeout=250",
+		"spring.cache.type=none",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConnectionPoolSaturationTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private MeterRegistry meters;
+
+	@Test
+	void lookupFailsFastWith503WhilePoolIsExhausted() throws Exception {
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+				new TransactionTemplate(txManager).executeWithoutResult(status -> {
+					repo.count();
+					holding.countDown();
+					await(release);
+				}));
+		try {
+			assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+			long start = System.nanoTime();
+			mvc.perform(get("/employees/1"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "1"));
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+		} finally {
+			release.countDown();
+			holder.get(5, TimeUnit.SECONDS);
+		}
+
+		mvc.perform(get("/employees/1")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void unreachableDatabaseIsNotReportedAsBusy() {
+		GlobalExceptionHandler handler = new GlobalExceptionHandler();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees/1");
+		SQLTransientConnectionException poolTimeout = new SQLTransientConnectionException(
+				"HikariPool-1 - Connection is not available, request timed out after 250ms");
+		SQLTransientConnectionException outage = new SQLTransientConnectionException(
+				"HikariPool-1 - Connection is not available, request timed out after 250ms", "08001",
+				new SQLException("Connection refused"));
+
+		ResponseEntity<?> busy = handler.handleNoConnection(
+				new CannotCreateTransactionException("Could not open JPA EntityManager", poolTimeout), request);
+		assertThat(busy.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(busy.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+
+		ResponseEntity<?> down = handler.handleNoConnection(
+				new CannotCreateTransactionException("Could not open JPA EntityManager", outage), request);
+		assertThat(down.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+		assertThat(down.getHeaders().containsKey("Retry-After")).isFalse();
+	}
+
+	@Test
+	void hikariMetricsArePublished() {
+		assertThat(meters.find("hikaricp.connections.acquire").timer()).isNotNull();
+		assertThat(meters.find("hikaricp.connections.usage").timer()).isNotNull();
+		assertThat(meters.find("hikaricp.connections.pending").gauge()).isNotNull();
+		assertThat(meters.find("hikaricp.connections.active").gauge()).isNotNull();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
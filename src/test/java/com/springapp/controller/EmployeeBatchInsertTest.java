@@ -0,0 +1,65 @@
+package com.springapp.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.StringJoiner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.repository.EmployeeRepository;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:batchinserttest;DB_CLOSE_DELAY=-1",
+		"app.employees.batch.max-chunk-size=2" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeBatchInsertTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+	}
+
+	@Test
+	void rowWithAVersionIsABadRequestNamingTheRow() throws Exception {
+		String body = "[{\"empid\":1,\"ename\":\"John Doe\",\"department\":\"IT\",\"salary\":5000},"
+				+ "{\"empid\":2,\"ename\":\"Mary Smith\",\"department\":\"HR\",\"salary\":6000,\"version\":3}]";
+
+		mvc.perform(post("/employees/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Row 1 (empid 2): version must not be set on a new employee"));
+		assertThat(repo.count()).isZero();
+	}
+
+	@Test
+	void chunkSizeIsCappedAtTheMaximum() throws Exception {
+		StringJoiner rows = new StringJoiner(",", "[", "]");
+		for (int id = 1; id <= 5; id++) {
+			rows.add("{\"empid\":" + id + ",\"ename\":\"Employee " + id + "\",\"department\":\"IT\",\"salary\":1}");
+		}
+
+		mvc.perform(post("/employees/batch").param("chunkSize", "1000000")
+						.contentType(MediaType.APPLICATION_JSON).content(rows.toString()))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[0].size").value(2));
+		assertThat(repo.count()).isEqualTo(5);
+	}
+}
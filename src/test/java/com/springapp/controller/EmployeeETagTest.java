@@ -0,0 +1,65 @@
+package com.springapp.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.model.Employee;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:etagtest;DB_CLOSE_DELAY=-1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeETagTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private CacheManager caches;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+		caches.getCacheNames().forEach(name -> caches.getCache(name).clear());
+		repo.save(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+	}
+
+	@Test
+	void etagIsWeakAndVariesByAccept() throws Exception {
+		mvc.perform(get("/employees/1").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"1-0\""))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+		mvc.perform(get("/employees/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"1-0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+	}
+
+	@Test
+	void aWriteInvalidatesTheEtag() throws Exception {
+		mvc.perform(put("/employees/1").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ename\":\"John Doe\",\"department\":\"Ops\",\"salary\":5500}"))
+				.andExpect(status().isOk());
+		mvc.perform(get("/employees/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"1-0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"1-1\""));
+	}
+}
@@ -0,0 +1,60 @@
+package com.springapp.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.model.Employee;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:conflicttest;DB_CLOSE_DELAY=-1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeWriteConflictTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+		repo.save(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+	}
+
+	@Test
+	void postForAnExistingEmpIdIsAConflict() throws Exception {
+		mvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"empid\":1,\"ename\":\"Other\",\"department\":\"HR\",\"salary\":1}"))
+				.andExpect(status().isConflict());
+		mvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"empid\":2,\"ename\":\"Mary Smith\",\"department\":\"HR\",\"salary\":6000}"))
+				.andExpect(status().isCreated());
+	}
+
+	@Test
+	void putWithAStaleVersionIsAConflict() throws Exception {
+		String body = "{\"ename\":\"John Doe\",\"department\":\"Ops\",\"salary\":5500%s}";
+		mvc.perform(put("/employees/1").contentType(MediaType.APPLICATION_JSON).content(body.formatted(",\"version\":0")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(1));
+		mvc.perform(put("/employees/1").contentType(MediaType.APPLICATION_JSON).content(body.formatted(",\"version\":0")))
+				.andExpect(status().isConflict());
+		mvc.perform(put("/employees/1").contentType(MediaType.APPLICATION_JSON).content(body.formatted("")))
+				.andExpect(status().isOk());
+	}
+}
@@ -2,8 +2,12 @@ package com.springapp.demo;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+import com.springapp.application.SpringbootDemoApplication;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class)
+@ActiveProfiles("test")
 class SpringbootDemoApplicationTests {
 
 	@Test
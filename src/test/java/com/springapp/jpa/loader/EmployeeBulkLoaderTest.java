@@ -0,0 +1,154 @@
+package com.springapp.jpa.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.springapp.model.Employee;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+// the "pu" unit pointed at an in-memory H2 database
+class EmployeeBulkLoaderTest {
+
+	private static final int ROWS = 1000;
+
+	@TempDir
+	Path dir;
+
+	private EntityManagerFactory emf;
+
+	private SessionFactory sessionFactory;
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		emf = Persistence.createEntityManagerFactory("pu", Map.of(
+				"jakarta.persistence.jdbc.driver", "org.h2.Driver",
+				"jakarta.persistence.jdbc.url", "jdbc:h2:mem:bulkload;DB_CLOSE_DELAY=-1",
+				"jakarta.persistence.jdbc.user", "sa",
+				"jakarta.persistence.jdbc.password", "",
+				"hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+				"hibernate.hbm2ddl.auto", "create-drop",
+				"hibernate.show_sql", "false",
+				"hibernate.jdbc.batch_size", "50",
+				"hibernate.connection.provider_class", HikariConnectionProvider.class.getName(),
+				HikariConnectionProvider.MAXIMUM_POOL_SIZE, "5"));
+		sessionFactory = emf.unwrap(SessionFactory.class);
+		file = csv(ROWS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		emf.close();
+	}
+
+	@Test
+	void connectionsComeFromHikari() {
+		HikariDataSource pool = sessionFactory.getSessionFactoryOptions().getServiceRegistry()
+				.requireService(org.hibernate.engine.jdbc.connections.spi.ConnectionProvider.class)
+				.unwrap(HikariDataSource.class);
+		assertThat(pool.getMaximumPoolSize()).isEqualTo(5);
+	}
+
+	@Test
+	void empidSpanIsSplitIntoOneContiguousRangePerThread() throws Exception {
+		EmployeeBulkLoader.Report report = new EmployeeBulkLoader(sessionFactory)
+				.load(file, new EmployeeBulkLoader.Options("split", 4, 100, true));
+
+		assertThat(report.completed()).isTrue();
+		assertThat(report.loaded()).isEqualTo(ROWS);
+		List<BulkLoadCheckpoint> partitions = checkpoints("split");
+		assertThat(partitions).hasSize(4);
+		assertThat(partitions.get(0).getRangeFrom()).isEqualTo(1);
+		assertThat(partitions.get(3).getRangeTo()).isEqualTo(ROWS);
+		for (int i = 1; i < partitions.size(); i++) {
+			assertThat(partitions.get(i).getRangeFrom()).isEqualTo(partitions.get(i - 1).getRangeTo() + 1);
+		}
+		assertThat(partitions).allSatisfy(p -> assertThat(p.getRowsCommitted()).isEqualTo(250));
+		assertThat(employeeCount()).isEqualTo(ROWS);
+	}
+
+	@Test
+	void failedLoadResumesWhereEachPartitionStopped() throws Exception {
+		insertEmployee(700); // conflicts with the file's row 700
+		EmployeeBulkLoader loader = new EmployeeBulkLoader(sessionFactory);
+
+		EmployeeBulkLoader.Report failed = loader.load(file, new EmployeeBulkLoader.Options("resume", 4, 50, true));
+		assertThat(failed.completed()).isFalse();
+		long committed = checkpoints("resume").stream().mapToLong(BulkLoadCheckpoint::getRowsCommitted).sum();
+		assertThat(committed).isLessThan(ROWS);
+
+		deleteEmployee(700);
+		EmployeeBulkLoader.Report resumed = loader.load(file, new EmployeeBulkLoader.Options("resume", 4, 50, true));
+
+		assertThat(resumed.completed()).isTrue();
+		assertThat(resumed.resumedFrom()).isEqualTo(committed);
+		assertThat(resumed.resumedFrom() + resumed.loaded()).isEqualTo(ROWS);
+		assertThat(employeeCount()).isEqualTo(ROWS);
+	}
+
+	@Test
+	void resumeOnAChangedFileIsRefused() throws Exception {
+		insertEmployee(700);
+		EmployeeBulkLoader loader = new EmployeeBulkLoader(sessionFactory);
+		assertThat(loader.load(file, new EmployeeBulkLoader.Options("changed", 2, 50, true)).completed()).isFalse();
+
+		List<String> lines = new ArrayList<>(Files.readAllLines(file));
+		Collections.swap(lines, 1, 2); // same size, different order
+		Files.write(file, lines);
+
+		assertThatThrownBy(() -> loader.load(file, new EmployeeBulkLoader.Options("changed", 2, 50, true)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("different file");
+	}
+
+	// shuffled, so every partition gets rows from all over the file
+	private Path csv(int rows) throws IOException {
+		List<String> lines = new ArrayList<>();
+		for (int id = 1; id <= rows; id++) {
+			lines.add(id + ",Employee " + id + ",e" + id + "@example.com,IT," + (1000 + id));
+		}
+		Collections.shuffle(lines, new Random(42));
+		lines.add(0, "empid,ename,email,department,salary");
+		return Files.write(dir.resolve("employees.csv"), lines);
+	}
+
+	private List<BulkLoadCheckpoint> checkpoints(String loadId) {
+		try (var session = sessionFactory.openStatelessSession()) {
+			return session.createQuery("from BulkLoadCheckpoint where loadId = :loadId order by partition",
+					BulkLoadCheckpoint.class).setParameter("loadId", loadId).getResultList();
+		}
+	}
+
+	private long employeeCount() {
+		try (var session = sessionFactory.openStatelessSession()) {
+			return session.createQuery("select count(e) from Employee e", Long.class).getSingleResult();
+		}
+	}
+
+	private void insertEmployee(int empid) {
+		sessionFactory.inTransaction(session -> session.persist(new Employee(empid, "Existing", null, "HR", 1)));
+	}
+
+	private void deleteEmployee(int empid) {
+		sessionFactory.inTransaction(session -> session.remove(session.find(Employee.class, empid)));
+	}
+}
@@ -0,0 +1,75 @@
+package com.springapp.jpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.model.Employee;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// goes through the repository directly so the Spring "employees" cache is not involved
+@SpringBootTest(classes = SpringbootDemoApplication.class)
+@ActiveProfiles("test")
+class EmployeeSecondLevelCacheTest {
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	private Statistics stats;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+		repo.saveAll(List.of(
+				new Employee(1, "John Doe", "john@example.com", "IT", 5000),
+				new Employee(2, "Mary Smith", "mary@example.com", "IT", 6000),
+				new Employee(3, "Robert King", "robert@example.com", "HR", 7000)));
+		emf.getCache().evictAll();
+		stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+	}
+
+	@Test
+	void repeatedFindByIdIsServedFromSecondLevelCache() {
+		assertThat(repo.findById(1)).isPresent();
+		assertThat(repo.findById(1)).isPresent();
+		assertThat(repo.findById(1)).isPresent();
+
+		assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(stats.getSecondLevelCacheHitCount()).isEqualTo(2);
+	}
+
+	@Test
+	void repeatedFindByDepartmentIsServedFromQueryCache() {
+		assertThat(repo.findByDepartment("IT")).hasSize(2);
+		assertThat(repo.findByDepartment("IT")).hasSize(2);
+		assertThat(repo.findByDepartment("IT")).hasSize(2);
+
+		assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(stats.getQueryCacheHitCount()).isEqualTo(2);
+	}
+
+	@Test
+	void writeToTableInvalidatesQueryCache() {
+		repo.findByDepartment("IT");
+		repo.save(new Employee(4, "Sophia Patel", "sophia@example.com", "IT", 5100));
+		stats.clear();
+
+		assertThat(repo.findByDepartment("IT")).hasSize(3);
+		assertThat(stats.getQueryCacheHitCount()).isZero();
+		assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,64 @@
+package com.springapp.jpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.model.Employee;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:evictiontest;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+class EmployeeCacheEvictionTest {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+		repo.save(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+		cacheManager.getCache(EmployeeService.EMPLOYEE_CACHE).clear();
+	}
+
+	@Test
+	void missDuringTheWriteTransactionDoesNotLeaveTheOldRowCached() {
+		new TransactionTemplate(txManager).executeWithoutResult(status -> {
+			service.updateEmployee(1, new Employee(1, "Jonathan Doe", "john@example.com", "IT", 5000));
+			// another request misses the cache before the commit and fills it with the committed (old) row
+			assertThat(CompletableFuture.supplyAsync(() -> service.findByIdOrThrow(1).getEname()).join())
+					.isEqualTo("John Doe");
+		});
+
+		assertThat(service.findByIdOrThrow(1).getEname()).isEqualTo("Jonathan Doe");
+	}
+
+	@Test
+	void deleteEvictsOnlyOnceCommitted() {
+		assertThat(service.findById(1)).isPresent();
+
+		service.deleteEmployee(1);
+
+		assertThat(service.findById(1)).isEmpty();
+	}
+}
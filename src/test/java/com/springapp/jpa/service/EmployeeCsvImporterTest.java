@@ -0,0 +1,102 @@
+package com.springapp.jpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.dto.CsvImportSummary;
+import com.springapp.dto.CsvImportSummary.RejectedLine;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.model.Employee;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:csvimporttest;DB_CLOSE_DELAY=-1",
+		"app.employees.import.max-rejected-lines=2",
+		"app.employees.import.max-line-length=200" })
+@ActiveProfiles("test")
+class EmployeeCsvImporterTest {
+
+	private static final String HEADER = "empid,ename,email,department,salary\n";
+
+	@Autowired
+	private EmployeeCsvImporter importer;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+	}
+
+	@Test
+	void quotedFieldsKeepCommasAndQuotes() throws IOException {
+		CsvImportSummary summary = importCsv(HEADER
+				+ "1,\"Doe, John\",john@example.com,IT,5000\r\n"
+				+ "2,\"Mary \"\"MJ\"\" Smith\",,HR,6000\n", 10);
+
+		assertThat(summary.imported()).isEqualTo(2);
+		assertThat(summary.rejected()).isZero();
+		assertThat(repo.findById(1)).map(Employee::getEname).contains("Doe, John");
+		assertThat(repo.findById(2)).map(Employee::getEname).contains("Mary \"MJ\" Smith");
+		assertThat(repo.findById(2)).map(Employee::getEmail).isEmpty();
+	}
+
+	@Test
+	void failedChunkIsRetriedRowByRow() throws IOException {
+		repo.save(new Employee(2, "Existing", "existing@example.com", "IT", 1));
+
+		CsvImportSummary summary = importCsv(HEADER
+				+ "1,John Doe,john@example.com,IT,5000\n"
+				+ "2,Duplicate,dup@example.com,IT,5000\n"
+				+ "3,Mary Smith,mary@example.com,HR,6000\n", 10);
+
+		assertThat(summary.imported()).isEqualTo(2);
+		assertThat(summary.rejected()).isEqualTo(1);
+		assertThat(summary.rejectedLines()).extracting(RejectedLine::line).containsExactly(3L);
+		assertThat(repo.findById(1)).isPresent();
+		assertThat(repo.findById(2)).map(Employee::getEname).contains("Existing");
+		assertThat(repo.findById(3)).isPresent();
+	}
+
+	@Test
+	void rejectedLinesAreReportedWithLineNumbersAndTruncated() throws IOException {
+		CsvImportSummary summary = importCsv(HEADER
+				+ "x,John Doe,john@example.com,IT,5000\n"
+				+ "2,Mary Smith,HR,6000\n"
+				+ "3,\"Ann Lee,ann@example.com,IT,1\n"
+				+ "4,Bob Ray,bob@example.com,IT,4000\n", 10);
+
+		assertThat(summary.lines()).isEqualTo(5);
+		assertThat(summary.imported()).isEqualTo(1);
+		assertThat(summary.rejected()).isEqualTo(3);
+		assertThat(summary.rejectedLines()).containsExactly(
+				new RejectedLine(2, "empid is not a number: 'x'"),
+				new RejectedLine(3, "expected 5 columns, got 4"));
+		assertThat(summary.rejectedLinesTruncated()).isTrue();
+	}
+
+	@Test
+	void overlongLineIsRejectedAndTheNextLineStillImported() throws IOException {
+		CsvImportSummary summary = importCsv(HEADER
+				+ "1,\"" + "x".repeat(100_000) + "\n"
+				+ "2,Mary Smith,mary@example.com,HR,6000\n", 10);
+
+		assertThat(summary.imported()).isEqualTo(1);
+		assertThat(summary.rejectedLines()).containsExactly(new RejectedLine(2, "line longer than 200 characters"));
+		assertThat(repo.findById(2)).isPresent();
+	}
+
+	private CsvImportSummary importCsv(String csv, int chunkSize) throws IOException {
+		return importer.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, chunkSize);
+	}
+}
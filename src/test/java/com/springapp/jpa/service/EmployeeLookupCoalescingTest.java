@@ -0,0 +1,120 @@
+package com.springapp.jpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.model.Employee;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:coalescetest;DB_CLOSE_DELAY=-1",
+		"spring.cache.type=none" })
+@ActiveProfiles("test")
+class EmployeeLookupCoalescingTest {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Test
+	void lookupsUnderOpenInViewReturnUnmanagedRows() {
+		repo.deleteAllInBatch();
+		repo.save(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+
+		// what OpenEntityManagerInViewInterceptor does for a web request: an EntityManager but no transaction
+		EntityManager requestEm = emf.createEntityManager();
+		TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(requestEm));
+		try {
+			Employee byId = service.findByIdOrThrow(1);
+			List<Employee> byDepartment = service.findByDepartment("IT");
+
+			assertThat(byId.getEname()).isEqualTo("John Doe");
+			assertThat(byDepartment).hasSize(1);
+			assertThat(requestEm.contains(byId)).isFalse();
+			assertThat(requestEm.contains(byDepartment.get(0))).isFalse();
+		} finally {
+			TransactionSynchronizationManager.unbindResource(emf);
+			requestEm.close();
+		}
+	}
+
+	@Test
+	void waitersGetTheirOwnCopyOfTheLeadersResult() throws Exception {
+		SingleFlight<Integer, Optional<Employee>> flights = new SingleFlight<>("findById", new SimpleMeterRegistry(),
+				Duration.ofSeconds(5), found -> found.map(Employee::copy));
+		CountDownLatch leading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Employee loaded = new Employee(1, "John Doe", "john@example.com", "IT", 5000);
+
+		CompletableFuture<Optional<Employee>> leader = CompletableFuture.supplyAsync(() -> flights.execute(1, () -> {
+			leading.countDown();
+			await(release);
+			return Optional.of(loaded);
+		}));
+		assertThat(leading.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Optional<Employee>> waiter = CompletableFuture.supplyAsync(
+				() -> flights.execute(1, () -> Optional.of(new Employee(1, "Not Shared", null, "IT", 0))));
+		Thread.sleep(100); // let the waiter find the leader in flight
+		release.countDown();
+
+		Employee mine = waiter.get(5, TimeUnit.SECONDS).orElseThrow();
+		assertThat(mine.getEname()).isEqualTo("John Doe");
+		assertThat(mine).isNotSameAs(loaded);
+		assertThat(leader.get(5, TimeUnit.SECONDS).orElseThrow()).isNotSameAs(loaded).isNotSameAs(mine);
+	}
+
+	@Test
+	void waitersGiveUpOnASlowLeader() throws Exception {
+		SingleFlight<Integer, Optional<Employee>> flights = new SingleFlight<>("findById", new SimpleMeterRegistry(),
+				Duration.ofMillis(100), found -> found.map(Employee::copy));
+		CountDownLatch leading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Optional<Employee>> leader = CompletableFuture.supplyAsync(() -> flights.execute(1, () -> {
+			leading.countDown();
+			await(release);
+			return Optional.empty();
+		}));
+		try {
+			assertThat(leading.await(5, TimeUnit.SECONDS)).isTrue();
+			long start = System.nanoTime();
+			assertThatThrownBy(() -> flights.execute(1, Optional::empty)).isInstanceOf(QueryTimeoutException.class);
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+		} finally {
+			release.countDown();
+			leader.get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
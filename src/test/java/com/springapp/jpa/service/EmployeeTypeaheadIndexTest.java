@@ -0,0 +1,90 @@
+package com.springapp.jpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.dto.EmployeePatch;
+import com.springapp.dto.EmployeeSuggestion;
+import com.springapp.jpa.event.EmployeeEvent;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.model.Employee;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:typeaheadtest;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class EmployeeTypeaheadIndexTest {
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private EmployeeBatchService batchService;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	@Test
+	void eventsDuringTheLoadAreReplayedOverTheScan() throws Exception {
+		CountDownLatch scanning = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		EmployeeService slowScan = new EmployeeService(null, new SimpleMeterRegistry(), null, 1, Duration.ofSeconds(5)) {
+			@Override
+			public long exportAll(Consumer<Employee> sink) {
+				scanning.countDown();
+				await(release);
+				// the snapshot the scan read before the events below committed
+				sink.accept(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+				sink.accept(new Employee(2, "Mary Smith", "mary@example.com", "HR", 6000));
+				return 2;
+			}
+		};
+		EmployeeTypeaheadIndex index = new EmployeeTypeaheadIndex(slowScan);
+		Thread loader = new Thread(index::load);
+		loader.start();
+		await(scanning);
+
+		index.onEmployeeEvent(new EmployeeEvent.Patched(1, new EmployeePatch("Johnny Doe", null, null, null, null)));
+		index.onEmployeeEvent(new EmployeeEvent.Deleted(2));
+		assertThat(index.isLoaded()).isFalse();
+		release.countDown();
+		loader.join(5000);
+
+		assertThat(index.isLoaded()).isTrue();
+		assertThat(index.search("john", 10)).extracting(EmployeeSuggestion::ename).containsExactly("Johnny Doe");
+		assertThat(index.search("mary", 10)).isEmpty();
+	}
+
+	@Test
+	void deletingIdsPublishesOnlyTheRowsThatExisted() {
+		repo.deleteAllInBatch();
+		repo.save(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+		events.clear();
+
+		assertThat(batchService.deleteByIds(List.of(1, 404))).isEqualTo(1);
+		assertThat(events.stream(EmployeeEvent.Deleted.class).map(EmployeeEvent.Deleted::empid)).containsExactly(1);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.springapp.jpa.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.jpa.repository.EmployeeRepository;
+
+// capacity 2 and one row per chunk, so a blocked flusher plus two queued creates fill the buffer
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:writebehindtest;DB_CLOSE_DELAY=-1",
+		"app.employees.write-behind.enabled=true",
+		"app.employees.write-behind.capacity=2",
+		"app.employees.write-behind.batch-size=1",
+		"app.employees.write-behind.max-delay=20ms" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeWriteBehindBufferTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private EmployeeWriteBehindBuffer buffer;
+
+	@MockitoSpyBean
+	private EmployeeBatchService batchService;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+	}
+
+	@AfterEach
+	void tearDown() {
+		reset(batchService);
+	}
+
+	@Test
+	void acceptedCreateIsQueuedThenCommitted() throws Exception {
+		String trackingId = submit(employee(1, "John Doe"));
+
+		assertThat(awaitState(trackingId, "COMMITTED").path("empid").asInt()).isEqualTo(1);
+		assertThat(repo.findById(1)).isPresent();
+	}
+
+	@Test
+	void badRowFailsAloneAndReportsWhy() throws Exception {
+		String bad = submit(employee(1, "x".repeat(300))); // e_name is 255 characters
+		String good = submit(employee(2, "Mary Smith"));
+
+		assertThat(awaitState(bad, "FAILED").path("error").asText()).isNotBlank();
+		awaitState(good, "COMMITTED");
+		assertThat(repo.findById(1)).isEmpty();
+		assertThat(repo.findById(2)).isPresent();
+	}
+
+	@Test
+	void fullBufferRejectsWith429() throws Exception {
+		CountDownLatch flushing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			flushing.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return invocation.callRealMethod();
+		}).when(batchService).insertChunk(anyList());
+
+		String first = submit(employee(1, "John Doe"));
+		assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue(); // the flusher holds the first row
+		String second = submit(employee(2, "Mary Smith"));
+		String third = submit(employee(3, "Ann Lee"));
+		mvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON).content(employee(4, "Bob Ray")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string("Retry-After", "1"));
+
+		release.countDown();
+		for (String trackingId : new String[] { first, second, third }) {
+			awaitState(trackingId, "COMMITTED");
+		}
+		assertThat(repo.count()).isEqualTo(3);
+	}
+
+	@Test
+	void stopWritesWhatWasQueuedAndRefusesLaterCreatesWith503() throws Exception {
+		String queued = submit(employee(1, "John Doe"));
+		buffer.stop();
+		try {
+			mvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON).content(employee(2, "Mary Smith")))
+					.andExpect(status().isServiceUnavailable());
+			awaitState(queued, "COMMITTED");
+			assertThat(repo.findById(2)).isEmpty();
+		} finally {
+			buffer.start();
+		}
+	}
+
+	private String submit(String body) throws Exception {
+		String response = mvc.perform(post("/employees").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isAccepted())
+				.andExpect(jsonPath("$.state").value("QUEUED"))
+				.andReturn().getResponse().getContentAsString();
+		return mapper.readTree(response).path("trackingId").asText();
+	}
+
+	private JsonNode awaitState(String trackingId, String state) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		JsonNode status;
+		do {
+			Thread.sleep(20);
+			String body = mvc.perform(get("/employees/ingest/" + trackingId))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			status = mapper.readTree(body);
+		} while (!state.equals(status.path("state").asText()) && System.nanoTime() < deadline);
+		assertThat(status.path("state").asText()).isEqualTo(state);
+		return status;
+	}
+
+	private static String employee(int empid, String ename) {
+		return "{\"empid\":" + empid + ",\"ename\":\"" + ename + "\",\"email\":\"e" + empid
+				+ "@example.com\",\"department\":\"IT\",\"salary\":5000}";
+	}
+}
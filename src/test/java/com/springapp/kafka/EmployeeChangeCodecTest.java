@@ -0,0 +1,54 @@
+package com.springapp.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import com.springapp.dto.EmployeeChangeEvent;
+import com.springapp.dto.EmployeeChangeEvent.Type;
+
+class EmployeeChangeCodecTest {
+
+	private final EmployeeChangeSerializer serializer = new EmployeeChangeSerializer();
+
+	private final EmployeeChangeDeserializer deserializer = new EmployeeChangeDeserializer();
+
+	@Test
+	void eventsSurviveTheRoundTrip() {
+		List<EmployeeChangeEvent> events = List.of(
+				new EmployeeChangeEvent(Type.SAVED, 1, "John Doe", "john@example.com", "IT", 5000, 3L),
+				new EmployeeChangeEvent(Type.SAVED, 70_000, "Zoë Ångström", null, "Research", 0, 0L),
+				new EmployeeChangeEvent(Type.PATCHED, 2, null, null, null, -1, null),
+				new EmployeeChangeEvent(Type.DELETED, Integer.MAX_VALUE, null, null, null, null, null));
+
+		for (EmployeeChangeEvent event : events) {
+			byte[] bytes = serializer.serialize("employee-changes", event);
+			assertThat(deserializer.deserialize("employee-changes", bytes)).isEqualTo(event);
+			// as handed over by the consumer: a slice of a larger fetch buffer
+			ByteBuffer fetched = ByteBuffer.allocate(bytes.length + 8).position(4).put(bytes).flip().position(4);
+			assertThat(deserializer.deserialize("employee-changes", null, fetched)).isEqualTo(event);
+		}
+		assertThat(serializer.serialize("t", events.get(3))).hasSize(9);
+	}
+
+	@Test
+	void fieldsOfLaterVersionsAreSkippedAndBrokenRecordsRejected() {
+		byte[] bytes = serializer.serialize("t", new EmployeeChangeEvent(Type.PATCHED, 7, null, null, null, 100, null));
+		byte[] later = Arrays.copyOf(bytes, bytes.length + 2);
+		later[0] = 2;
+		later[1] += 2;
+		assertThat(deserializer.deserialize("t", later).salary()).isEqualTo(100);
+
+		assertThatThrownBy(() -> deserializer.deserialize("t", Arrays.copyOf(bytes, bytes.length - 1)))
+				.isInstanceOf(SerializationException.class);
+		byte[] badType = bytes.clone();
+		badType[2] = 9;
+		assertThatThrownBy(() -> deserializer.deserialize("t", badType)).isInstanceOf(SerializationException.class);
+	}
+}
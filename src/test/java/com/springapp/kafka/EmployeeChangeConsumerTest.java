@@ -0,0 +1,155 @@
+package com.springapp.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.dto.DepartmentSalaryStats;
+import com.springapp.dto.EmployeeSuggestion;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.jpa.service.EmployeeService;
+import com.springapp.jpa.service.EmployeeTypeaheadIndex;
+import com.springapp.model.Employee;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// the consumer is built by hand around a MockConsumer and writes to H2
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:consumertest;DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+class EmployeeChangeConsumerTest {
+
+	private static final String TOPIC = "employee-changes";
+
+	private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+
+	@Autowired
+	private EmployeeRepository repo;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EmployeeService service;
+
+	private EmployeeTypeaheadIndex typeahead;
+
+	private MockConsumer<String, String> kafka;
+
+	private SimpleMeterRegistry meters;
+
+	private EmployeeChangeConsumer consumer;
+
+	@BeforeEach
+	void setUp() {
+		repo.deleteAllInBatch();
+		repo.save(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+		repo.save(new Employee(2, "Mary Smith", "mary@example.com", "HR", 6000));
+
+		typeahead = new EmployeeTypeaheadIndex(service);
+		typeahead.load();
+
+		kafka = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+		meters = new SimpleMeterRegistry();
+		consumer = new EmployeeChangeConsumer(kafka,
+				new EmployeeChangeApplier(repo, txManager, mapper, cacheManager, typeahead, meters), meters,
+				TOPIC, Duration.ofMillis(10), Duration.ofMillis(10));
+		consumer.subscribe();
+		kafka.rebalance(List.of(P0));
+		kafka.updateBeginningOffsets(Map.of(P0, 0L));
+	}
+
+	@Test
+	void batchIsUpsertedAndOffsetsCommittedAfterwards() {
+		add(0, "{\"type\":\"SAVED\",\"empid\":3,\"ename\":\"Robert King\",\"department\":\"HR\",\"salary\":7000}");
+		add(1, "{\"type\":\"PATCHED\",\"empid\":1,\"salary\":5500}");
+		add(2, "{\"type\":\"DELETED\",\"empid\":2}");
+		add(3, "{\"type\":\"SAVED\",\"empid\":1,\"ename\":\"John Doe\",\"email\":\"jd@example.com\",\"department\":\"Ops\",\"salary\":5600}");
+		add(4, "{\"type\":\"DELETED\",\"empid\":3}");
+		add(5, "{\"type\":\"SAVED\",\"empid\":3,\"ename\":\"Robert King\",\"department\":\"Ops\",\"salary\":7100}");
+
+		assertThat(consumer.pollOnce()).isEqualTo(6);
+
+		assertThat(repo.findById(1)).get().extracting(Employee::getDepartment, Employee::getSalary)
+				.containsExactly("Ops", 5600);
+		assertThat(repo.findById(2)).isEmpty();
+		assertThat(repo.findById(3)).get().extracting(Employee::getDepartment, Employee::getSalary)
+				.containsExactly("Ops", 7100);
+		assertThat(committed()).contains(6L);
+		assertThat(meters.counter("employees.consumer.records").count()).isEqualTo(6);
+		assertThat(meters.summary("employees.consumer.batch.size").max()).isEqualTo(6);
+		assertThat(meters.timer("employees.consumer.lag").count()).isEqualTo(6);
+	}
+
+	@Test
+	void appliedChangesReachTheTypeaheadIndexAndDepartmentStats() {
+		assertThat(service.departmentSalaryStats()).extracting(DepartmentSalaryStats::getDepartment)
+				.containsExactlyInAnyOrder("IT", "HR");
+
+		add(0, "{\"type\":\"SAVED\",\"empid\":3,\"ename\":\"Robert King\",\"department\":\"Ops\",\"salary\":7000}");
+		add(1, "{\"type\":\"PATCHED\",\"empid\":1,\"ename\":\"Jonathan Doe\"}");
+		add(2, "{\"type\":\"DELETED\",\"empid\":2}");
+
+		assertThat(consumer.pollOnce()).isEqualTo(3);
+
+		assertThat(typeahead.search("rob", 10)).extracting(EmployeeSuggestion::empid).containsExactly(3);
+		assertThat(typeahead.search("jonathan", 10)).extracting(EmployeeSuggestion::empid).containsExactly(1);
+		assertThat(typeahead.search("john", 10)).extracting(EmployeeSuggestion::empid).containsExactly(1); // email
+		assertThat(typeahead.search("mary", 10)).isEmpty();
+		assertThat(service.departmentSalaryStats()).extracting(DepartmentSalaryStats::getDepartment)
+				.containsExactlyInAnyOrder("IT", "Ops");
+	}
+
+	@Test
+	void poisonRecordsAreSkippedWithoutStallingThePartition() {
+		add(0, "{\"type\":\"PATCHED\",\"empid\":1,\"salary\":5500}");
+		add(1, "not json");
+		add(2, "{\"type\":\"PATCHED\",\"empid\":2,\"ename\":\"" + "x".repeat(300) + "\"}");
+		add(3, "{\"type\":\"PATCHED\",\"empid\":2,\"salary\":6600}");
+
+		assertThat(consumer.pollOnce()).isEqualTo(4);
+
+		assertThat(repo.findById(1)).get().extracting(Employee::getSalary).isEqualTo(5500);
+		assertThat(repo.findById(2)).get().extracting(Employee::getEname, Employee::getSalary)
+				.containsExactly("Mary Smith", 6600);
+		assertThat(committed()).contains(4L);
+		assertThat(meters.counter("employees.consumer.rejected").count()).isEqualTo(2);
+	}
+
+	private void add(long offset, String value) {
+		kafka.addRecord(new ConsumerRecord<>(TOPIC, 0, offset, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+				-1, -1, null, value, new RecordHeaders(), Optional.empty()));
+	}
+
+	private Optional<Long> committed() {
+		OffsetAndMetadata offset = kafka.committed(Set.of(P0)).get(P0);
+		return Optional.ofNullable(offset).map(OffsetAndMetadata::offset);
+	}
+}
@@ -0,0 +1,181 @@
+package com.springapp.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.application.SpringbootDemoApplication;
+import com.springapp.dto.EmployeePatch;
+import com.springapp.jpa.exception.EmployeeVersionConflictException;
+import com.springapp.jpa.repository.EmployeeOutboxRepository;
+import com.springapp.jpa.repository.EmployeeRepository;
+import com.springapp.jpa.service.EmployeeService;
+import com.springapp.model.Employee;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// outbox rows come from the real service on H2; the relay is built by hand around a MockProducer
+@SpringBootTest(classes = SpringbootDemoApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:outboxtest;DB_CLOSE_DELAY=-1",
+		"app.outbox.enabled=true" })
+@ActiveProfiles("test")
+class EmployeeOutboxRelayTest {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private EmployeeRepository employees;
+
+	@Autowired
+	private EmployeeOutboxRepository outbox;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@BeforeEach
+	void setUp() {
+		employees.deleteAllInBatch();
+		outbox.deleteAllInBatch();
+	}
+
+	@Test
+	void changesAreWrittenToTheOutboxOnlyWhenTheyCommit() {
+		service.saveEmployee(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+		service.patchEmployee(1, new EmployeePatch(null, null, null, 5500, null));
+		assertThatThrownBy(() -> service.patchEmployee(1, new EmployeePatch(null, null, null, 9000, 0L)))
+				.isInstanceOf(EmployeeVersionConflictException.class);
+		service.deleteEmployee(1);
+
+		assertThat(outbox.findAllByOrderByIdAsc(Limit.of(10))).extracting("type")
+				.containsExactly("SAVED", "PATCHED", "DELETED");
+	}
+
+	@Test
+	void relayPublishesInOrderKeyedByEmpIdAndDeletesAcknowledgedRows() {
+		service.saveEmployee(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+		service.saveEmployee(new Employee(2, "Mary Smith", "mary@example.com", "HR", 6000));
+		service.deleteEmployee(1);
+
+		MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+		relay(producer, 2).relay();
+
+		List<ProducerRecord<String, String>> sent = producer.history();
+		assertThat(sent).extracting(ProducerRecord::key).containsExactly("1", "2", "1");
+		assertThat(sent.get(0).value()).contains("\"type\":\"SAVED\"", "\"ename\":\"John Doe\"", "\"version\":0");
+		assertThat(sent.get(2).value()).isEqualTo("{\"type\":\"DELETED\",\"empid\":1}");
+		assertThat(new String(sent.get(2).headers().lastHeader(EmployeeOutboxRelay.TYPE_HEADER).value(),
+				StandardCharsets.UTF_8)).isEqualTo("DELETED");
+		assertThat(outbox.count()).isZero();
+	}
+
+	// each app instance writes outbox rows; a later change made on this instance must not get a lower id
+	// than an earlier one made on another instance that drew its ids from the sequence in between
+	@Test
+	void changesFromTwoInstancesArePublishedInTheOrderTheyWereMade() {
+		service.saveEmployee(new Employee(1, "John Doe", "john@example.com", "IT", 5000));
+		service.saveEmployee(new Employee(2, "Mary Smith", "mary@example.com", "HR", 6000)); // this instance has drawn ids
+
+		JdbcTemplate otherInstance = new JdbcTemplate(dataSource);
+		Long otherId = otherInstance.queryForObject("SELECT NEXT VALUE FOR employee_outbox_seq", Long.class);
+		otherInstance.update("INSERT INTO employee_outbox (id, emp_id, event_type, payload, created_at) VALUES (?, 1, 'PATCHED', ?, ?)",
+				otherId, "{\"type\":\"PATCHED\",\"empid\":1,\"salary\":5100}", Timestamp.from(Instant.now()));
+		service.patchEmployee(1, new EmployeePatch(null, null, null, 5200, null));
+
+		MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+		relay(producer, 10).relay();
+		assertThat(producer.history()).filteredOn(r -> r.key().equals("1")).extracting(ProducerRecord::value)
+				.satisfiesExactly(
+						saved -> assertThat(saved).contains("\"type\":\"SAVED\""),
+						first -> assertThat(first).contains("\"salary\":5100"),
+						second -> assertThat(second).contains("\"salary\":5200"));
+	}
+
+	@Test
+	void failedSendKeepsItAndLaterRowsForTheNextRun() {
+		for (int id = 1; id <= 4; id++) {
+			service.saveEmployee(new Employee(id, "E" + id, null, "IT", 1000));
+		}
+
+		MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+		CompletableFuture<Integer> run = CompletableFuture.supplyAsync(() -> relay(producer, 10).relayBatch());
+		awaitHistory(producer, 4);
+		producer.completeNext();
+		producer.errorNext(new TimeoutException("broker down"));
+		producer.completeNext();
+		producer.completeNext();
+
+		assertThat(run.join()).isEqualTo(1);
+		assertThat(outbox.count()).isEqualTo(3);
+
+		MockProducer<String, String> retry = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+		relay(retry, 10).relay();
+		assertThat(retry.history()).extracting(ProducerRecord::key).containsExactly("2", "3", "4");
+		assertThat(outbox.count()).isZero();
+	}
+
+	@Test
+	void unacknowledgedSendsAreBoundedByMaxInFlight() throws Exception {
+		for (int id = 1; id <= 5; id++) {
+			service.saveEmployee(new Employee(id, "E" + id, null, "IT", 1000));
+		}
+
+		MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+		CompletableFuture<Integer> run = CompletableFuture.supplyAsync(() -> relay(producer, 2).relayBatch());
+		awaitHistory(producer, 2);
+		TimeUnit.MILLISECONDS.sleep(200);
+		assertThat(producer.history()).hasSize(2);
+
+		while (!run.isDone()) {
+			if (!producer.completeNext()) {
+				TimeUnit.MILLISECONDS.sleep(5);
+			}
+		}
+		assertThat(run.join()).isEqualTo(5);
+		assertThat(producer.history()).hasSize(5);
+	}
+
+	private EmployeeOutboxRelay relay(MockProducer<String, String> producer, int maxInFlight) {
+		EmployeeEventPublisher publisher = new EmployeeEventPublisher(producer, mapper, new SimpleMeterRegistry(),
+				"employee-changes", maxInFlight, Duration.ofSeconds(5));
+		return new EmployeeOutboxRelay(outbox, publisher, txManager, new SimpleMeterRegistry(),
+				"employee-changes", 100, Duration.ofSeconds(5));
+	}
+
+	private static void awaitHistory(MockProducer<String, String> producer, int size) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (producer.history().size() < size && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertThat(producer.history()).hasSizeGreaterThanOrEqualTo(size);
+	}
+}
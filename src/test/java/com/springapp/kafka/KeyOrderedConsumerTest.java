@@ -0,0 +1,172 @@
+package com.springapp.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// lanes run on real threads; the test drives the polling side by hand
+class KeyOrderedConsumerTest {
+
+	private static final String TOPIC = "employee-changes";
+
+	private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+
+	private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+	// offsets committed per partition, readable while another thread holds the MockConsumer's lock
+	private final Map<TopicPartition, Long> commits = new ConcurrentHashMap<>();
+
+	private final MockConsumer<String, String> kafka = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+		@Override
+		public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+			super.commitSync(offsets);
+			offsets.forEach((partition, offset) -> commits.put(partition, offset.offset()));
+		}
+	};
+
+	private final CountDownLatch gate = new CountDownLatch(1);
+
+	private final Map<String, List<Long>> handled = new ConcurrentHashMap<>();
+
+	private Duration drainTimeout = Duration.ofSeconds(5);
+
+	private KeyOrderedConsumer<String, String> consumer;
+
+	@AfterEach
+	void tearDown() {
+		gate.countDown();
+		consumer.stopLanes();
+	}
+
+	@Test
+	void keysStayInOrderWhileOtherKeysRunAndCommitsWaitForTheSlowestRecord() {
+		// with 4 lanes key "1" has lane 1 to itself; "2", "3" and "4" go to lanes 2, 3 and 0
+		start(4, 100, 10, "1");
+		add(P0, 0, "1");
+		add(P0, 1, "2");
+		add(P0, 2, "3");
+		add(P0, 3, "2");
+		add(P0, 4, "4");
+		add(P0, 5, "1");
+
+		assertThat(consumer.pollOnce()).isEqualTo(6);
+		await(() -> handled.values().stream().mapToInt(List::size).sum() == 4);
+		consumer.commit();
+		assertThat(committed(P0)).contains(0L);
+
+		gate.countDown();
+		await(() -> consumer.queued() == 0);
+		consumer.commit();
+		assertThat(committed(P0)).contains(6L);
+		assertThat(handled).containsEntry("1", List.of(0L, 5L)).containsEntry("2", List.of(1L, 3L));
+	}
+
+	@Test
+	void fullLanePausesOnlyThePartitionsFeedingItUntilItDrains() {
+		// with 2 lanes key "1" goes to lane 1 and key "2" to lane 0
+		start(2, 4, 1, "1", "2");
+		for (long offset = 0; offset < 6; offset++) {
+			add(P0, offset, "1");
+		}
+		add(P1, 0, "2");
+		add(P1, 1, "2");
+
+		consumer.pollOnce();
+		assertThat(kafka.paused()).containsExactly(P0);
+
+		gate.countDown();
+		await(() -> consumer.queued() == 0);
+		consumer.pollOnce();
+		assertThat(kafka.paused()).isEmpty();
+		consumer.commit();
+		assertThat(committed(P0)).contains(6L);
+		assertThat(committed(P1)).contains(2L);
+	}
+
+	@Test
+	void revocationWaitsForTheRunningHandlerAndDropsWhatIsStillQueued() throws InterruptedException {
+		drainTimeout = Duration.ofMillis(50);
+		start(2, 100, 1, "1");
+		add(P0, 0, "1");
+		add(P0, 1, "1");
+		consumer.pollOnce();
+
+		Thread rebalance = new Thread(() -> kafka.rebalance(List.of(P1)));
+		rebalance.start();
+		rebalance.join(500); // well past the drain timeout
+		assertThat(rebalance.isAlive()).isTrue();
+		assertThat(commits).doesNotContainKey(P0);
+
+		gate.countDown();
+		rebalance.join(5000);
+		assertThat(rebalance.isAlive()).isFalse();
+		await(() -> consumer.queued() == 0);
+		assertThat(handled).containsEntry("1", List.of(0L));
+		assertThat(commits).containsEntry(P0, 1L); // offset 1 is read again by the next owner
+	}
+
+	// records with one of the slow keys wait for the gate
+	private void start(int lanes, int laneCapacity, int laneBatchSize, String... slowKeys) {
+		Set<String> slow = Set.of(slowKeys);
+		KeyOrderedConsumer.Handler<String, String> handler = records -> {
+			for (ConsumerRecord<String, String> record : records) {
+				if (slow.contains(record.key())) {
+					try {
+						gate.await();
+					} catch (InterruptedException ex) {
+						throw new IllegalStateException(ex);
+					}
+				}
+				handled.computeIfAbsent(record.key(), k -> new ArrayList<>()).add(record.offset());
+			}
+		};
+		KeyOrderedConsumer.Options options = new KeyOrderedConsumer.Options(lanes, laneCapacity, laneBatchSize,
+				Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofHours(1), drainTimeout);
+		consumer = new KeyOrderedConsumer<>(kafka, handler, new SimpleMeterRegistry(), "test", TOPIC, options,
+				runnable -> {
+					Thread thread = new Thread(runnable);
+					thread.setDaemon(true);
+					return thread;
+				});
+		consumer.startLanes();
+		consumer.subscribe();
+		kafka.rebalance(List.of(P0, P1));
+		kafka.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+	}
+
+	private void add(TopicPartition partition, long offset, String key) {
+		kafka.addRecord(new ConsumerRecord<>(TOPIC, partition.partition(), offset, key, "{}"));
+	}
+
+	private Optional<Long> committed(TopicPartition partition) {
+		OffsetAndMetadata offset = kafka.committed(Set.of(partition)).get(partition);
+		return Optional.ofNullable(offset).map(OffsetAndMetadata::offset);
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+}
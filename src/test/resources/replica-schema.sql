@@ -0,0 +1,10 @@
+-- replica side of ReadReplicaRoutingTest; Hibernate only creates the schema on the primary
+CREATE TABLE IF NOT EXISTS employee (
+    emp_id INTEGER PRIMARY KEY,
+    e_name VARCHAR(255),
+    email VARCHAR(255),
+    department VARCHAR(255),
+    salary INTEGER NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    last_modified TIMESTAMP(6) WITH TIME ZONE
+);